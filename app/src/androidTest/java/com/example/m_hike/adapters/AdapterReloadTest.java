@@ -0,0 +1,138 @@
+package com.example.m_hike.adapters;
+
+import android.content.Context;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.m_hike.models.Difficulty;
+import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.Observation;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * An onResume reload returns equal rows as new objects; diffing them against
+ * the displayed list must not notify the RecyclerView at all.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AdapterReloadTest {
+
+    private static final int ROWS = 1000;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @Test
+    public void hikeAdapterIgnoresAnUnchangedReload() throws InterruptedException {
+        HikeAdapter[] adapter = new HikeAdapter[1];
+        onMain(() -> adapter[0] = new HikeAdapter(context, hikes(), null));
+
+        assertEquals(0, changesAfterReload(adapter[0], done -> adapter[0].updateList(hikes(), done)));
+    }
+
+    @Test
+    public void upcomingHikeAdapterIgnoresAnUnchangedReload() throws InterruptedException {
+        UpcomingHikeAdapter[] adapter = new UpcomingHikeAdapter[1];
+        onMain(() -> adapter[0] = new UpcomingHikeAdapter(context, hikes()));
+
+        assertEquals(0, changesAfterReload(adapter[0], done -> adapter[0].updateList(hikes(), done)));
+    }
+
+    @Test
+    public void observationAdapterIgnoresAnUnchangedReload() throws InterruptedException {
+        ObservationAdapter[] adapter = new ObservationAdapter[1];
+        onMain(() -> adapter[0] = new ObservationAdapter(context, observations(), null));
+
+        assertEquals(0, changesAfterReload(adapter[0],
+                done -> adapter[0].updateList(observations(), done)));
+    }
+
+    @Test
+    public void aChangedRowIsTheOnlyRowNotified() throws InterruptedException {
+        ObservationAdapter[] adapter = new ObservationAdapter[1];
+        onMain(() -> adapter[0] = new ObservationAdapter(context, observations(), null));
+
+        assertEquals(1, changesAfterReload(adapter[0], done -> {
+            List<Observation> edited = observations();
+            edited.set(500, new Observation(500, 1, "Edited", "08:20", null));
+            adapter[0].updateList(edited, done);
+        }));
+    }
+
+    // Rows notified by one reload; reload passes the given callback on as its commit callback
+    private int changesAfterReload(RecyclerView.Adapter<?> adapter,
+                                   Consumer<Runnable> reload) throws InterruptedException {
+        CountingObserver observer = new CountingObserver();
+        CountDownLatch committed = new CountDownLatch(1);
+        onMain(() -> {
+            assertEquals(ROWS, adapter.getItemCount());
+            adapter.registerAdapterDataObserver(observer);
+            reload.accept(committed::countDown);
+        });
+        assertTrue("diff never committed", committed.await(10, TimeUnit.SECONDS));
+        return observer.rows;
+    }
+
+    private static void onMain(Runnable action) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(action);
+    }
+
+    // Fresh objects with the same ids and content on every call, as a reload returns
+    private static List<Hike> hikes() {
+        List<Hike> hikes = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            hikes.add(new Hike(i, "Hike " + i, "Location " + i, 4, "2-4 hours", "Description " + i,
+                    Difficulty.MODERATE, 5.5, "Yes", "01/06/2024"));
+        }
+        return hikes;
+    }
+
+    private static List<Observation> observations() {
+        List<Observation> observations = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            observations.add(new Observation(i, 1, "Observation " + i, "08:20", "Comment " + i));
+        }
+        return observations;
+    }
+
+    private static final class CountingObserver extends RecyclerView.AdapterDataObserver {
+        int rows;
+
+        @Override
+        public void onChanged() {
+            rows += ROWS;
+        }
+
+        // Plain range changes are dispatched through this overload too
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            rows += itemCount;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            rows += itemCount;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            rows += itemCount;
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            rows += itemCount;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.m_hike.adapters;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.os.Debug;
+import android.widget.TextView;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.m_hike.R;
+import com.example.m_hike.models.Difficulty;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Binding a difficulty badge in HikeAdapter must allocate nothing, even when
+ * every bind shows a different level (a fling through a mixed list). The old
+ * per-bind GradientDrawable + Color.parseColor is counted alongside to show
+ * the counter sees allocations.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BadgeAllocationTest {
+
+    private static final int BINDS = 10_000;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private final Difficulty[] levels = Difficulty.values();
+
+    @Test
+    public void badgeBindsAllocateNothing() {
+        int[] counts = new int[2];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            DifficultyBadges badges = new DifficultyBadges(context);
+            TextView badge = new TextView(context);
+            badge.setBackgroundResource(R.drawable.badge_difficulty);
+            Drawable[] backgrounds = badges.backgroundsFor(badge);
+            // The first setBackground on a thread allocates a padding rect it then reuses
+            for (Difficulty level : levels) {
+                badges.apply(badge, backgrounds, level);
+                oldBind(badge, level);
+            }
+
+            counts[0] = allocationsDuring(() -> {
+                for (int i = 0; i < BINDS; i++) {
+                    badges.apply(badge, backgrounds, levels[i % levels.length]);
+                }
+            });
+            counts[1] = allocationsDuring(() -> {
+                for (int i = 0; i < BINDS; i++) {
+                    oldBind(badge, levels[i % levels.length]);
+                }
+            });
+        });
+
+        assertTrue("old bind counted only " + counts[1] + " allocations", counts[1] >= BINDS);
+        assertEquals(0, counts[0]);
+    }
+
+    // Objects allocated on this thread while run executes
+    @SuppressWarnings("deprecation")
+    private static int allocationsDuring(Runnable run) {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        try {
+            run.run();
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        return Debug.getThreadAllocCount();
+    }
+
+    // setDifficultyColor as HikeAdapter ran it on every bind before DifficultyBadges
+    private static void oldBind(TextView badge, Difficulty level) {
+        GradientDrawable drawable = new GradientDrawable();
+        int color;
+        switch (level) {
+            case EASY:
+                color = Color.parseColor("#27AE60");
+                break;
+            case MODERATE:
+                color = Color.parseColor("#F39C12");
+                break;
+            case HARD:
+                color = Color.parseColor("#E74C3C");
+                break;
+            case VERY_HARD:
+                color = Color.parseColor("#8E44AD");
+                break;
+            default:
+                color = Color.parseColor("#95A5A6");
+        }
+        drawable.setColor(color);
+        badge.setBackground(drawable);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.m_hike.database;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.Observation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 10k hike inserts: one addHike call (own transaction) per row against one
+ * addHikes batch. Timings are logged under TestDatabase.TAG.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private TestDatabase single;
+    private TestDatabase batched;
+
+    @Before
+    public void setUp() {
+        single = TestDatabase.create("bench-insert-single.db");
+        batched = TestDatabase.create("bench-insert-batched.db");
+    }
+
+    @After
+    public void tearDown() {
+        single.delete();
+        batched.delete();
+    }
+
+    @Test
+    public void batchedInsertBeatsOneCallPerRow() {
+        List<Hike> hikes = TestDatabase.hikes(ROWS);
+
+        double singleMillis = TestDatabase.timeMillis("addHike x " + ROWS, () -> {
+            for (Hike hike : hikes) {
+                single.helper.addHike(hike);
+            }
+        });
+        BulkInsertResult[] result = new BulkInsertResult[1];
+        double batchedMillis = TestDatabase.timeMillis("addHikes(" + ROWS + ")",
+                () -> result[0] = batched.helper.addHikes(hikes));
+
+        assertEquals(ROWS, result[0].getInsertedCount());
+        assertEquals(ROWS, batched.helper.getHikeCount());
+        assertTrue("batched " + batchedMillis + " ms vs single " + singleMillis + " ms",
+                batchedMillis < singleMillis);
+    }
+
+    @Test
+    public void idsComeBackInInputOrder() {
+        long[] ids = batched.helper.addHikes(TestDatabase.hikes(3)).getIds();
+
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals("Hike " + i, batched.helper.getHikeById((int) ids[i]).getName());
+        }
+    }
+
+    @Test
+    public void failedRowsAreReportedAndTheRestCommitted() {
+        long hikeId = batched.insertHikes(1)[0];
+        List<Observation> observations = Arrays.asList(
+                TestDatabase.observation(hikeId, 0),
+                // No such hike: fails the foreign key
+                TestDatabase.observation(hikeId + 1000, 1),
+                TestDatabase.observation(hikeId, 2));
+
+        BulkInsertResult result = batched.helper.addObservations(observations);
+
+        assertEquals(2, result.getInsertedCount());
+        assertEquals(Integer.valueOf(1), result.getFailures().keySet().iterator().next());
+        assertEquals(-1, result.getIds()[1]);
+        assertEquals(2, batched.helper.getObservationsForHike((int) hikeId).size());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.m_hike.database;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.m_hike.models.Observation;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Reader throughput while the writer is busy, in WAL and in the old rollback
+ * journal. Readers page through the hike list (what the list and statistics
+ * screens do) while one thread commits observation batches back to back.
+ * Under WAL the readers keep going; with a rollback journal they wait for
+ * every commit.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ConcurrencyBenchmark {
+
+    private static final int HIKES = 2000;
+    private static final int READERS = 3;
+    private static final int WRITE_BATCH = 100;
+    private static final long RUN_MILLIS = 2000;
+
+    private TestDatabase db;
+
+    @After
+    public void tearDown() {
+        if (db != null) {
+            db.delete();
+        }
+        DatabaseHelper.setConfig(new DatabaseConfig());
+    }
+
+    @Test
+    public void walReadersKeepUpWithABusyWriter() throws Exception {
+        Throughput wal = measure(DatabaseConfig.JournalMode.WAL);
+        Throughput rollback = measure(DatabaseConfig.JournalMode.TRUNCATE);
+
+        assertTrue("WAL " + wal + ", rollback journal " + rollback, wal.busyReads > rollback.busyReads);
+    }
+
+    private Throughput measure(DatabaseConfig.JournalMode mode) throws Exception {
+        if (db != null) {
+            db.delete();
+        }
+        DatabaseHelper.setConfig(new DatabaseConfig().setJournalMode(mode));
+        db = TestDatabase.create("test-concurrency.db");
+        long hikeId = db.insertHikes(HIKES)[0];
+        // Warm up the connections and statement caches
+        readFor(null, 200);
+
+        Throughput result = new Throughput();
+        result.idleReads = readFor(null, RUN_MILLIS);
+        result.busyReads = readFor(hikeId, RUN_MILLIS);
+        Log.i(TestDatabase.TAG, String.format(Locale.ROOT, "%s reads/s: idle %d, writer busy %d",
+                mode, result.idleReads * 1000 / RUN_MILLIS, result.busyReads * 1000 / RUN_MILLIS));
+        return result;
+    }
+
+    // Pages read by all readers in the given time; writes into writeHikeId meanwhile unless it is null
+    private long readFor(Long writeHikeId, long millis) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(READERS + 1);
+        AtomicBoolean stop = new AtomicBoolean();
+        try {
+            List<Future<Long>> readers = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                readers.add(threads.submit(() -> {
+                    long reads = 0;
+                    while (!stop.get()) {
+                        db.helper.queryHikes(new HikeQuery().setLimit(30));
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            Future<?> writer = writeHikeId == null ? null : threads.submit(() -> {
+                int i = 0;
+                while (!stop.get()) {
+                    List<Observation> batch = new ArrayList<>(WRITE_BATCH);
+                    for (int j = 0; j < WRITE_BATCH; j++) {
+                        batch.add(TestDatabase.observation(writeHikeId, i++));
+                    }
+                    db.helper.addObservations(batch);
+                }
+            });
+
+            Thread.sleep(millis);
+            stop.set(true);
+            long reads = 0;
+            for (Future<Long> reader : readers) {
+                reads += reader.get();
+            }
+            if (writer != null) {
+                writer.get();
+            }
+            return reads;
+        } finally {
+            stop.set(true);
+            threads.shutdown();
+            threads.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static final class Throughput {
+        long idleReads;
+        long busyReads;
+
+        @Override
+        public String toString() {
+            return "idle " + idleReads + " reads, busy " + busyReads + " reads";
+        }
+    }
+}
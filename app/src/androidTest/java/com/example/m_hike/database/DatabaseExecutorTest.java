@@ -0,0 +1,152 @@
+package com.example.m_hike.database;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class DatabaseExecutorTest {
+
+    private TestOwner owner;
+
+    @Before
+    public void setUp() {
+        onMain(() -> owner = new TestOwner());
+    }
+
+    @After
+    public void tearDown() {
+        onMain(() -> owner.registry.setCurrentState(Lifecycle.State.DESTROYED));
+    }
+
+    @Test
+    public void taskRunsInTheBackgroundAndTheResultArrivesOnTheMainThread() throws InterruptedException {
+        AtomicBoolean taskOnMain = new AtomicBoolean(true);
+        AtomicBoolean callbackOnMain = new AtomicBoolean();
+        AtomicReference<String> result = new AtomicReference<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+
+        onMain(() -> DatabaseExecutor.read(owner, () -> {
+            taskOnMain.set(isMainThread());
+            return "done";
+        }, value -> {
+            callbackOnMain.set(isMainThread());
+            result.set(value);
+            delivered.countDown();
+        }));
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertFalse(taskOnMain.get());
+        assertTrue(callbackOnMain.get());
+        assertEquals("done", result.get());
+    }
+
+    @Test
+    public void destroyedOwnerGetsNoCallback() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean called = new AtomicBoolean();
+
+        onMain(() -> DatabaseExecutor.write(owner, () -> {
+            started.countDown();
+            release.await();
+            return null;
+        }, value -> called.set(true)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        onMain(() -> owner.registry.setCurrentState(Lifecycle.State.DESTROYED));
+        release.countDown();
+
+        awaitIdle();
+        assertFalse(called.get());
+    }
+
+    @Test
+    public void fullWriteQueueRejectsWithOnError() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Exception> error = new AtomicReference<>();
+        CountDownLatch rejected = new CountDownLatch(1);
+        // Hold the writer thread so submitted writes stay queued
+        DatabaseExecutor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        onMain(() -> {
+            for (int i = 0; i < DatabaseExecutor.WRITE_QUEUE_CAPACITY; i++) {
+                DatabaseExecutor.write(owner, () -> null, null);
+            }
+            DatabaseExecutor.write(owner, () -> null, new DatabaseExecutor.Callback<Void>() {
+                @Override
+                public void onResult(Void result) {
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    error.set(e);
+                    rejected.countDown();
+                }
+            });
+        });
+        assertTrue(rejected.await(5, TimeUnit.SECONDS));
+        release.countDown();
+
+        assertTrue(error.get() instanceof RejectedExecutionException);
+        awaitIdle();
+    }
+
+    // Wait until every queued task has run and its callbacks were posted
+    private static void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!DatabaseExecutor.isIdle()) {
+            assertTrue("executor never drained", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+    }
+
+    private static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    private static void onMain(Runnable action) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(action);
+    }
+
+    // A resumed lifecycle the test can destroy (LifecycleRegistry is main-thread only)
+    private static final class TestOwner implements LifecycleOwner {
+        final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        TestOwner() {
+            registry.setCurrentState(Lifecycle.State.RESUMED);
+        }
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+}
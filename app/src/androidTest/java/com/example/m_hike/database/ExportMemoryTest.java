@@ -0,0 +1,106 @@
+package com.example.m_hike.database;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Exporting 100k observations must run in constant memory: the live heap,
+ * sampled after a GC while the export runs, may not grow past a fixed cap
+ * (holding the rows as objects would take several times that).
+ */
+@RunWith(AndroidJUnit4.class)
+public class ExportMemoryTest {
+
+    private static final int HIKES = 1000;
+    private static final int OBSERVATIONS_PER_HIKE = 100;
+    private static final long TOTAL_ROWS = HIKES + (long) HIKES * OBSERVATIONS_PER_HIKE;
+    private static final long HEAP_CAP_BYTES = 4L * 1024 * 1024;
+    // Progress is reported every 500 rows; sample the heap every 20k
+    private static final long SAMPLE_INTERVAL = 20_000;
+
+    private TestDatabase db;
+    private File file;
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create("test-export.db");
+        for (long hikeId : db.insertHikes(HIKES)) {
+            db.insertObservations(hikeId, OBSERVATIONS_PER_HIKE);
+        }
+        file = new File(TestDatabase.context().getCacheDir(), "test-export");
+    }
+
+    @After
+    public void tearDown() {
+        db.delete();
+        file.delete();
+    }
+
+    @Test
+    public void jsonExportStaysUnderTheHeapCap() throws IOException {
+        assertConstantMemory(HikeArchive.Format.JSON);
+    }
+
+    @Test
+    public void csvExportStaysUnderTheHeapCap() throws IOException {
+        assertConstantMemory(HikeArchive.Format.CSV);
+    }
+
+    @Test
+    public void cancelStopsTheExport() throws IOException {
+        HikeExporter exporter = new HikeExporter(db.helper);
+        long[] lastProgress = new long[1];
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            exporter.export(out, HikeArchive.Format.JSON, (written, total) -> {
+                lastProgress[0] = written;
+                if (written >= 10_000) {
+                    exporter.cancel();
+                }
+            });
+            fail("export ran to the end after cancel()");
+        } catch (CancellationException expected) {
+            assertTrue(lastProgress[0] < TOTAL_ROWS);
+        }
+    }
+
+    private void assertConstantMemory(HikeArchive.Format format) throws IOException {
+        long baseline = liveHeap();
+        long[] peak = {0};
+        long written;
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            written = new HikeExporter(db.helper).export(out, format, (rows, total) -> {
+                if (rows % SAMPLE_INTERVAL == 0) {
+                    peak[0] = Math.max(peak[0], liveHeap() - baseline);
+                }
+            });
+        }
+
+        assertEquals(TOTAL_ROWS, written);
+        assertTrue(file.length() > TOTAL_ROWS * 10);
+        assertTrue(format + " grew the live heap by " + peak[0] + " bytes", peak[0] < HEAP_CAP_BYTES);
+    }
+
+    // Heap still in use after a collection
+    private static long liveHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        System.runFinalization();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.m_hike.database;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.m_hike.models.Difficulty;
+import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.Observation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class HikeSearchIndexTest {
+
+    private TestDatabase db;
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create("test-search.db");
+    }
+
+    @After
+    public void tearDown() {
+        db.delete();
+    }
+
+    private long addHike(String name, String location, String description) {
+        return db.helper.addHike(new Hike(name, location, "01/06/2024", "Yes", 5,
+                Difficulty.EASY, description, "2-4 hours", 4));
+    }
+
+    private long addObservation(long hikeId, String text, String comment) {
+        return db.helper.addObservation(new Observation((int) hikeId, text, "10:00", comment));
+    }
+
+    @Test
+    public void termsMayMatchTheHikeAndDifferentObservations() {
+        long hikeId = addHike("Ridge walk", "Snowdon", "Windy");
+        addObservation(hikeId, "Saw an eagle", null);
+        addObservation(hikeId, "Frozen lake", "Very cold");
+        addHike("Valley walk", "Brecon", "Sheltered");
+
+        List<Hike> hits = db.helper.searchHikes("snowd eagle lake");
+
+        assertEquals(1, hits.size());
+        assertEquals(hikeId, hits.get(0).getId());
+        // Every term must be found somewhere in the hike
+        assertTrue(db.helper.searchHikes("snowdon otter").isEmpty());
+    }
+
+    @Test
+    public void nameHitsRankAboveObservationHits() {
+        long inObservation = addHike("Hill walk", "Wales", null);
+        addObservation(inObservation, "Waterfall below", null);
+        long inName = addHike("Waterfall trail", "Wales", null);
+
+        List<Hike> hits = db.helper.searchHikes("waterf");
+
+        assertEquals(2, hits.size());
+        assertEquals(inName, hits.get(0).getId());
+        assertEquals(inObservation, hits.get(1).getId());
+    }
+
+    @Test
+    public void observationWritesUpdateOnlyTheirOwnRow() {
+        long hikeId = addHike("Ridge walk", "Snowdon", null);
+        long observationId = addObservation(hikeId, "Saw an eagle", null);
+
+        db.helper.updateObservation(new Observation((int) observationId, (int) hikeId, "Saw a buzzard", "10:00", null));
+        assertTrue(db.helper.searchHikes("eagle").isEmpty());
+        assertEquals(1, db.helper.searchHikes("buzzard").size());
+
+        db.helper.deleteObservation((int) observationId);
+        assertTrue(db.helper.searchHikes("buzzard").isEmpty());
+
+        addObservation(hikeId, "Saw an otter", null);
+        db.helper.deleteHike((int) hikeId);
+        assertTrue(db.helper.searchHikes("otter").isEmpty());
+    }
+
+    /**
+     * Observation inserts into one hike must cost the same per row however many
+     * the hike already has (a per-hike document made them quadratic).
+     */
+    @Test
+    public void observationInsertCostDoesNotGrowWithTheHike() {
+        long hikeId = db.insertHikes(1)[0];
+        int batch = 2000;
+
+        double first = TestDatabase.timeMillis("observations 0-2k",
+                () -> db.insertObservations(hikeId, batch));
+        double second = TestDatabase.timeMillis("observations 2k-4k",
+                () -> db.insertObservations(hikeId, batch));
+
+        // Quadratic growth makes the second batch about three times slower
+        assertTrue("first " + first + " ms, second " + second + " ms", second < first * 2);
+        assertEquals(1, db.helper.searchHikes("observation 1999").size());
+    }
+}
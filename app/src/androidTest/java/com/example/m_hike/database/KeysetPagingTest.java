@@ -0,0 +1,129 @@
+package com.example.m_hike.database;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.m_hike.models.Hike;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Keyset pages must seek the sort index in every HikeSort and direction, and
+ * walking page by page across the NULL boundary must visit every hike once,
+ * in the same order as the unpaged query.
+ */
+@RunWith(AndroidJUnit4.class)
+public class KeysetPagingTest {
+
+    private static final int ROWS = 500;
+    private static final int PAGE = 30;
+
+    private TestDatabase db;
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create("test-keyset.db");
+        db.insertHikes(ROWS);
+        // Every third hike has no value in any sort column
+        db.helper.getWritableDatabase().execSQL("UPDATE " + DatabaseHelper.TABLE_HIKES + " SET " +
+                DatabaseHelper.KEY_NAME + " = NULL, " + DatabaseHelper.KEY_LENGTH + " = NULL, " +
+                DatabaseHelper.KEY_DATE_EPOCH + " = NULL WHERE " + DatabaseHelper.KEY_HIKE_ID + " % 3 = 0");
+        db.helper.getWritableDatabase().execSQL("ANALYZE");
+    }
+
+    @After
+    public void tearDown() {
+        db.delete();
+    }
+
+    @Test
+    public void everyKeyedPageSeeksTheSortIndex() {
+        for (HikeSort sort : HikeSort.values()) {
+            HikePage.Key valueKey = db.helper.getHikesPageAfter(sort, null, PAGE).getLastKey();
+            HikePage.Key nullKey = new HikePage.Key(null, ROWS / 2);
+            for (HikePage.Key key : new HikePage.Key[]{valueKey, nullKey}) {
+                assertSearch(sort, new HikeQuery().setSort(sort).setAfter(key).setLimit(PAGE));
+                assertSearch(sort, new HikeQuery().setSort(sort).setBefore(key).setLimit(PAGE));
+            }
+            // The boundary only has to start an ordered walk of the index
+            assertNoSort(sort, new HikeQuery().setSort(sort).setAfter(HikePage.Key.NULL_BOUNDARY).setLimit(PAGE));
+            assertNoSort(sort, new HikeQuery().setSort(sort).setBefore(HikePage.Key.NULL_BOUNDARY).setLimit(PAGE));
+        }
+    }
+
+    @Test
+    public void pagingForwardsVisitsEveryHikeInOrder() {
+        for (HikeSort sort : HikeSort.values()) {
+            List<Integer> expected = ids(db.helper.queryHikes(new HikeQuery().setSort(sort)).getHikes());
+            List<Integer> paged = new ArrayList<>();
+            HikePage page = db.helper.getHikesPageAfter(sort, null, PAGE);
+            paged.addAll(ids(page.getHikes()));
+            HikePage.Key key = page.getLastKey();
+            while (key != null) {
+                page = db.helper.getHikesPageAfter(sort, key, PAGE);
+                paged.addAll(ids(page.getHikes()));
+                if (page.size() < PAGE) {
+                    // Same step as HikePager: cross the boundary once, then stop
+                    key = key.endsAtNullBoundary(sort.isDescending()) ? HikePage.Key.NULL_BOUNDARY : null;
+                } else {
+                    key = page.getLastKey();
+                }
+            }
+            assertEquals(sort.name(), expected, paged);
+        }
+    }
+
+    @Test
+    public void pagingBackwardsVisitsEveryHikeInOrder() {
+        for (HikeSort sort : HikeSort.values()) {
+            HikePage all = db.helper.queryHikes(new HikeQuery().setSort(sort));
+            List<Integer> expected = ids(all.getHikes());
+            // Walk back to the top from the last row
+            List<Integer> paged = new ArrayList<>();
+            paged.add(expected.get(expected.size() - 1));
+            HikePage.Key key = all.getLastKey();
+            while (key != null) {
+                HikePage page = db.helper.getHikesPageBefore(sort, key, PAGE);
+                paged.addAll(0, ids(page.getHikes()));
+                if (page.size() < PAGE) {
+                    key = key.endsAtNullBoundary(!sort.isDescending()) ? HikePage.Key.NULL_BOUNDARY : null;
+                } else {
+                    key = page.getFirstKey();
+                }
+            }
+            assertEquals(sort.name(), expected, paged);
+        }
+    }
+
+    private void assertSearch(HikeSort sort, HikeQuery query) {
+        HikeQueryCompiler.Compiled compiled = HikeQueryCompiler.compile(query);
+        List<String> plan = db.queryPlan(compiled.sql, compiled.args);
+        assertTrue(sort + ": " + plan, plan.get(0).startsWith("SEARCH"));
+        assertNoSort(sort, query);
+    }
+
+    private void assertNoSort(HikeSort sort, HikeQuery query) {
+        HikeQueryCompiler.Compiled compiled = HikeQueryCompiler.compile(query);
+        List<String> plan = db.queryPlan(compiled.sql, compiled.args);
+        for (String detail : plan) {
+            assertFalse(sort + ": " + plan, detail.contains("TEMP B-TREE"));
+        }
+    }
+
+    private static List<Integer> ids(List<Hike> hikes) {
+        List<Integer> ids = new ArrayList<>(hikes.size());
+        for (Hike hike : hikes) {
+            ids.add(hike.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.m_hike.database;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.StrictMode;
+import android.os.strictmode.Violation;
+import android.util.Log;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.m_hike.activities.AdvancedSearchActivity;
+import com.example.m_hike.activities.HikeDetailActivity;
+import com.example.m_hike.activities.MainActivity;
+import com.example.m_hike.activities.ObservationListActivity;
+import com.example.m_hike.activities.ProfileActivity;
+import com.example.m_hike.models.Observation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Opens and resumes the screens that load data with StrictMode watching the
+ * main thread: any disk read or write whose stack goes through SQLite or this
+ * package fails the test. Uses the app's own database (the screens open it),
+ * seeded here and cleaned up afterwards.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MainThreadIoTest {
+
+    private final Context context = TestDatabase.context();
+    private final List<Violation> violations = Collections.synchronizedList(new ArrayList<>());
+    private StrictMode.ThreadPolicy previousPolicy;
+    private DatabaseHelper helper;
+    private long[] hikeIds;
+
+    @Before
+    public void setUp() {
+        // penaltyListener needs API 28
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.P);
+        helper = DatabaseHelper.getInstance(context);
+        hikeIds = helper.addHikes(TestDatabase.hikes(2000)).getIds();
+        helper.addObservations(observations(hikeIds[0], 200));
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            previousPolicy = StrictMode.getThreadPolicy();
+            StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .penaltyListener(Runnable::run, violations::add)
+                    .build());
+        });
+    }
+
+    @After
+    public void tearDown() {
+        if (helper == null) {
+            return;
+        }
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> StrictMode.setThreadPolicy(previousPolicy));
+        for (long id : hikeIds) {
+            helper.deleteHike((int) id);
+        }
+        helper.release();
+    }
+
+    @Test
+    public void screensLoadWithoutDatabaseIoOnTheMainThread() throws InterruptedException {
+        Intent withHike = new Intent().putExtra("HIKE_ID", (int) hikeIds[0]);
+        open(new Intent(context, MainActivity.class));
+        open(new Intent(withHike).setClass(context, ObservationListActivity.class));
+        open(new Intent(withHike).setClass(context, HikeDetailActivity.class));
+        open(new Intent(context, AdvancedSearchActivity.class));
+        open(new Intent(context, ProfileActivity.class));
+
+        List<String> databaseViolations = new ArrayList<>();
+        synchronized (violations) {
+            for (Violation violation : violations) {
+                if (touchesDatabase(violation)) {
+                    databaseViolations.add(Log.getStackTraceString(violation));
+                }
+            }
+        }
+        assertTrue(String.join("\n\n", databaseViolations), databaseViolations.isEmpty());
+    }
+
+    // Launch, let the loads finish, then pause and resume to run the onResume reload too
+    private <A extends Activity> void open(Intent intent) throws InterruptedException {
+        try (ActivityScenario<A> scenario = ActivityScenario.launch(intent)) {
+            awaitLoads();
+            scenario.moveToState(Lifecycle.State.STARTED);
+            scenario.moveToState(Lifecycle.State.RESUMED);
+            awaitLoads();
+        }
+    }
+
+    private static void awaitLoads() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        do {
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+            Thread.sleep(20);
+        } while (!DatabaseExecutor.isIdle() && System.currentTimeMillis() < deadline);
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+    }
+
+    private static boolean touchesDatabase(Violation violation) {
+        for (StackTraceElement frame : violation.getStackTrace()) {
+            String className = frame.getClassName();
+            if (className.startsWith("android.database.") || className.startsWith("com.example.m_hike.database.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Observation> observations(long hikeId, int count) {
+        List<Observation> observations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            observations.add(TestDatabase.observation(hikeId, i));
+        }
+        return observations;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.m_hike.database;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.m_hike.models.Observation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The edit-observation screen loads its hike and one observation by key. That
+ * load must take the same time for a hike with 20 observations as for one with
+ * 20k, unlike the old path that read every observation of the hike.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ObservationLookupTest {
+
+    private static final int SMALL = 20;
+    private static final int LARGE = 20_000;
+    private static final int LOADS = 500;
+
+    private TestDatabase db;
+    private long smallHike;
+    private long largeHike;
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create("test-observation-lookup.db");
+        long[] hikes = db.insertHikes(2);
+        smallHike = hikes[0];
+        largeHike = hikes[1];
+        db.insertObservations(smallHike, SMALL);
+        db.insertObservations(largeHike, LARGE);
+    }
+
+    @After
+    public void tearDown() {
+        db.delete();
+    }
+
+    @Test
+    public void editScreenLoadDoesNotGrowWithTheHike() {
+        int smallId = middleObservation(smallHike);
+        int largeId = middleObservation(largeHike);
+        // Warm up the statement cache and the pages both loads touch
+        editScreenLoad(smallHike, smallId);
+        editScreenLoad(largeHike, largeId);
+
+        double small = TestDatabase.timeMillis("edit load x " + LOADS + ", " + SMALL + " observations",
+                () -> repeatLoad(smallHike, smallId));
+        double large = TestDatabase.timeMillis("edit load x " + LOADS + ", " + LARGE + " observations",
+                () -> repeatLoad(largeHike, largeId));
+        TestDatabase.timeMillis("old scan x 10, " + LARGE + " observations", () -> {
+            for (int i = 0; i < 10; i++) {
+                db.helper.getObservationsForHike((int) largeHike);
+            }
+        });
+
+        // 1000x the rows; a scan would be orders of magnitude slower, a key lookup about the same
+        assertTrue("small " + small + " ms, large " + large + " ms", large < small * 3 + 5);
+    }
+
+    @Test
+    public void lookupIsASingleKeySearch() {
+        List<String> plan = db.queryPlan("SELECT * FROM " + DatabaseHelper.TABLE_OBSERVATIONS + " WHERE " +
+                DatabaseHelper.KEY_OBS_ID + "=? AND " + DatabaseHelper.KEY_HIKE_FK + "=?",
+                new String[]{"1", String.valueOf(largeHike)});
+
+        assertEquals(plan.toString(), 1, plan.size());
+        assertTrue(plan.toString(), plan.get(0).startsWith("SEARCH") && plan.get(0).contains("rowid=?"));
+    }
+
+    @Test
+    public void observationOfAnotherHikeIsNotLoaded() {
+        int id = middleObservation(largeHike);
+
+        assertNotNull(db.helper.getObservationById(id, (int) largeHike));
+        assertNull(db.helper.getObservationById(id, (int) smallHike));
+    }
+
+    private void repeatLoad(long hikeId, int observationId) {
+        for (int i = 0; i < LOADS; i++) {
+            editScreenLoad(hikeId, observationId);
+        }
+    }
+
+    // What EditObservationActivity reads on open
+    private void editScreenLoad(long hikeId, int observationId) {
+        assertNotNull(db.helper.getHikeById((int) hikeId));
+        Observation observation = db.helper.getObservationById(observationId, (int) hikeId);
+        assertEquals(observationId, observation.getId());
+    }
+
+    private int middleObservation(long hikeId) {
+        List<Observation> observations = db.helper.getObservationsForHike((int) hikeId);
+        return observations.get(observations.size() / 2).getId();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.m_hike.database;
+
+import android.database.Cursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.m_hike.models.Difficulty;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * EXPLAIN QUERY PLAN regression test: no DatabaseHelper read may fall back to
+ * scanning a table row by row. Walking an index in order (to skip a sort) is
+ * allowed; a plan line "SCAN <table>" with no index is not.
+ * Keyset pages are covered by KeysetPagingTest.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+
+    private TestDatabase db;
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create("test-query-plan.db");
+        long[] hikes = db.insertHikes(1000);
+        for (int i = 0; i < 50; i++) {
+            db.insertObservations(hikes[i], 20);
+        }
+        db.helper.getWritableDatabase().execSQL("ANALYZE");
+    }
+
+    @After
+    public void tearDown() {
+        db.delete();
+    }
+
+    @Test
+    public void observationReadsUseTheHikeIndex() {
+        // getObservationsForHike
+        assertIndexed("SELECT * FROM " + DatabaseHelper.TABLE_OBSERVATIONS + " WHERE " +
+                DatabaseHelper.KEY_HIKE_FK + "=? ORDER BY " + DatabaseHelper.KEY_TIME + " DESC", "1");
+        // Child lookup SQLite runs for ON DELETE CASCADE on each deleted hike
+        assertIndexed("SELECT 1 FROM " + DatabaseHelper.TABLE_OBSERVATIONS + " WHERE " +
+                DatabaseHelper.KEY_HIKE_FK + "=?", "1");
+        // getObservationById(id, hikeId)
+        assertIndexed("SELECT * FROM " + DatabaseHelper.TABLE_OBSERVATIONS + " WHERE " +
+                DatabaseHelper.KEY_OBS_ID + "=? AND " + DatabaseHelper.KEY_HIKE_FK + "=?", "1", "1");
+    }
+
+    @Test
+    public void hikeReadsUseAnIndex() {
+        // getHikeById
+        assertIndexed("SELECT * FROM " + DatabaseHelper.TABLE_HIKES + " WHERE " +
+                DatabaseHelper.KEY_HIKE_ID + "=?", "1");
+        // getUpcomingHikes
+        assertIndexed("SELECT * FROM " + DatabaseHelper.TABLE_HIKES + " WHERE " + DatabaseHelper.KEY_DATE_EPOCH +
+                " > ? ORDER BY " + DatabaseHelper.KEY_DATE_EPOCH + " ASC, " + DatabaseHelper.KEY_HIKE_ID + " ASC", "19000");
+        // getHikeStatistics summary row
+        assertIndexed("SELECT * FROM " + HikeStatsTable.TABLE + " WHERE id = 1");
+        // getHikeCount
+        assertIndexed("SELECT COUNT(*) FROM " + DatabaseHelper.TABLE_HIKES);
+    }
+
+    @Test
+    public void filteredQueriesUseAnIndex() {
+        HikeQuery[] queries = {
+                new HikeQuery(),
+                new HikeQuery().setDate("01/06/2022"),
+                new HikeQuery().setDateRange("01/01/2021", "31/12/2022"),
+                new HikeQuery().setDifficulties(Difficulty.HARD),
+                new HikeQuery().setDifficulties(Difficulty.EASY, Difficulty.HARD),
+                new HikeQuery().setDifficulties(Difficulty.HARD).setDateRange("01/01/2021", "31/12/2022"),
+                new HikeQuery().setHasObservations(true),
+                new HikeQuery().setHasObservations(false),
+                // A substring can't seek, but the list order is still an index walk
+                new HikeQuery().setNameContains("ike 1").setLocationContains("tion"),
+        };
+        for (HikeSort sort : HikeSort.values()) {
+            for (HikeQuery query : queries) {
+                HikeQueryCompiler.Compiled compiled = HikeQueryCompiler.compile(query.setSort(sort).setLimit(30));
+                assertIndexed(compiled.sql, compiled.args);
+            }
+        }
+    }
+
+    @Test
+    public void searchQueriesUseTheirIndexes() {
+        assertIndexed(DatabaseHelper.SQL_SEARCH_HIKE_ROWS, "hike*");
+        assertIndexed(DatabaseHelper.SQL_SEARCH_OBSERVATION_ROWS, "observation*");
+        assertIndexed(HikeTrigramIndex.candidatesQuery("?, ?, ?"), "hik", "ike", "ke ", "2", "50");
+    }
+
+    @Test
+    public void unusedNameAndLocationIndexesAreGone() {
+        List<String> indexes = new ArrayList<>();
+        try (Cursor cursor = db.helper.getReadableDatabase().rawQuery(
+                "SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = ?",
+                new String[]{DatabaseHelper.TABLE_HIKES})) {
+            while (cursor.moveToNext()) {
+                indexes.add(cursor.getString(0));
+            }
+        }
+
+        assertFalse(indexes.toString(), indexes.contains("idx_hikes_name"));
+        assertFalse(indexes.toString(), indexes.contains("idx_hikes_location"));
+        assertTrue(indexes.toString(), indexes.contains("idx_hikes_sort_name"));
+    }
+
+    private void assertIndexed(String sql, String... args) {
+        List<String> plan = db.queryPlan(sql, args);
+        assertFalse(sql, plan.isEmpty());
+        for (String detail : plan) {
+            // "SCAN Hikes" (or "SCAN TABLE Hikes" on older SQLite) reads every row
+            assertFalse(sql + "\n" + plan, detail.startsWith("SCAN") && !detail.contains("INDEX"));
+        }
+    }
+}
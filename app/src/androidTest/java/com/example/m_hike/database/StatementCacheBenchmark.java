@@ -0,0 +1,117 @@
+package com.example.m_hike.database;
+
+import android.content.ContentValues;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.m_hike.models.Observation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 100k single-row statements by primary key: the StatementCache path
+ * (compiled once, id bound with bindLong) against the generic update path
+ * (ContentValues, SQL rebuilt and the id turned into a String per call).
+ * Each side runs in one transaction so commits don't drown the difference;
+ * ns/op is logged under TestDatabase.TAG.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StatementCacheBenchmark {
+
+    private static final int OPERATIONS = 100_000;
+    private static final int WARM_UP = 5_000;
+    private static final int ROWS = 1000;
+
+    private TestDatabase db;
+    private final int[] ids = new int[ROWS];
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create("bench-statement-cache.db");
+        long hikeId = db.insertHikes(1)[0];
+        db.insertObservations(hikeId, ROWS);
+        // Ids of the observations just inserted, in insert order
+        int first = db.helper.getObservationsForHike((int) hikeId).stream()
+                .mapToInt(Observation::getId).min().getAsInt();
+        for (int i = 0; i < ROWS; i++) {
+            ids[i] = first + i;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        db.delete();
+    }
+
+    @Test
+    public void cachedStatementBeatsTheGenericPath() {
+        SQLiteDatabase sqlite = db.helper.getWritableDatabase();
+        StatementCache statements = new StatementCache();
+        try {
+            inTransaction(sqlite, () -> cached(sqlite, statements, WARM_UP));
+            inTransaction(sqlite, () -> generic(sqlite, WARM_UP));
+
+            double cachedMillis = TestDatabase.timeMillis("StatementCache x " + OPERATIONS,
+                    () -> inTransaction(sqlite, () -> assertEquals(OPERATIONS, cached(sqlite, statements, OPERATIONS))));
+            double genericMillis = TestDatabase.timeMillis("SQLiteDatabase.update x " + OPERATIONS,
+                    () -> inTransaction(sqlite, () -> assertEquals(OPERATIONS, generic(sqlite, OPERATIONS))));
+
+            Log.i(TestDatabase.TAG, String.format(Locale.ROOT, "single-row update: cached %.0f ns/op, generic %.0f ns/op",
+                    cachedMillis * 1e6 / OPERATIONS, genericMillis * 1e6 / OPERATIONS));
+            assertTrue("cached " + cachedMillis + " ms, generic " + genericMillis + " ms",
+                    cachedMillis < genericMillis);
+        } finally {
+            statements.clear();
+        }
+    }
+
+    // Rows changed by count updates through the cache (what updateObservation runs)
+    private int cached(SQLiteDatabase sqlite, StatementCache statements, int count) {
+        int changed = 0;
+        for (int i = 0; i < count; i++) {
+            int id = ids[i % ROWS];
+            String comment = (i & 1) == 0 ? "even" : "odd";
+            changed += statements.executeUpdateDelete(sqlite, DatabaseHelper.SQL_UPDATE_OBSERVATION, statement -> {
+                statement.bindString(1, "Observation");
+                statement.bindString(2, "10:00");
+                statement.bindString(3, comment);
+                statement.bindLong(4, id);
+            });
+        }
+        return changed;
+    }
+
+    // The same updates the way updateObservation ran before the cache
+    private int generic(SQLiteDatabase sqlite, int count) {
+        int changed = 0;
+        for (int i = 0; i < count; i++) {
+            ContentValues values = new ContentValues();
+            values.put(DatabaseHelper.KEY_OBSERVATION, "Observation");
+            values.put(DatabaseHelper.KEY_TIME, "10:00");
+            values.put(DatabaseHelper.KEY_COMMENT, (i & 1) == 0 ? "even" : "odd");
+            changed += sqlite.update(DatabaseHelper.TABLE_OBSERVATIONS, values, DatabaseHelper.KEY_OBS_ID + " = ?",
+                    new String[]{String.valueOf(ids[i % ROWS])});
+        }
+        return changed;
+    }
+
+    private static void inTransaction(SQLiteDatabase sqlite, Runnable work) {
+        sqlite.beginTransaction();
+        try {
+            work.run();
+            sqlite.setTransactionSuccessful();
+        } finally {
+            sqlite.endTransaction();
+        }
+    }
+}
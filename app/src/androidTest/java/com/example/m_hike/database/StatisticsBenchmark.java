@@ -0,0 +1,125 @@
+package com.example.m_hike.database;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.HikeStatistics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The Statistics tab against the loop it replaced: every hike loaded, its
+ * observations loaded just to count them, distance and the difficulty
+ * histogram summed in Java. Both must give the same figures.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StatisticsBenchmark {
+
+    private static final int HIKES = 2000;
+    private static final int OBSERVATIONS_PER_HIKE = 5;
+    private static final int RUNS = 5;
+
+    private TestDatabase db;
+    private long today;
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create("test-statistics.db");
+        for (long hikeId : db.insertHikes(HIKES)) {
+            db.insertObservations(hikeId, OBSERVATIONS_PER_HIKE);
+        }
+        // Test hikes are dated 2020-2024; leave some of them upcoming
+        today = DatabaseHelper.toEpochDay("01/01/2023");
+    }
+
+    @After
+    public void tearDown() {
+        db.delete();
+    }
+
+    @Test
+    public void summaryRowMatchesAndBeatsTheLoop() {
+        // Warm up the statement cache and the pages both paths touch
+        HikeStatistics api = db.helper.getHikeStatistics(today);
+        HikeStatistics loop = oldLoop();
+
+        assertEquals(HIKES, api.getTotalHikes());
+        assertEquals(loop.getTotalHikes(), api.getTotalHikes());
+        assertEquals(loop.getTotalObservations(), api.getTotalObservations());
+        assertEquals(loop.getTotalDistance(), api.getTotalDistance(), 0.001);
+        assertEquals(loop.getEasyCount(), api.getEasyCount());
+        assertEquals(loop.getModerateCount(), api.getModerateCount());
+        assertEquals(loop.getHardCount(), api.getHardCount());
+        assertEquals(loop.getVeryHardCount(), api.getVeryHardCount());
+        assertEquals(ids(loop.getUpcomingHikes()), ids(api.getUpcomingHikes()));
+
+        double apiMillis = TestDatabase.timeMillis("statistics API x " + RUNS + ", " + HIKES + " hikes", () -> {
+            for (int i = 0; i < RUNS; i++) {
+                db.helper.getHikeStatistics(today);
+            }
+        });
+        double loopMillis = TestDatabase.timeMillis("old loop x " + RUNS + ", " + HIKES + " hikes", () -> {
+            for (int i = 0; i < RUNS; i++) {
+                oldLoop();
+            }
+        });
+
+        // One row read plus a range scan against one query per hike
+        assertTrue("API " + apiMillis + " ms, loop " + loopMillis + " ms", apiMillis * 5 < loopMillis);
+    }
+
+    // What StatisticsFragment computed before the summary table existed
+    private HikeStatistics oldLoop() {
+        List<Hike> hikes = db.helper.queryHikes(new HikeQuery()).getHikes();
+        int observations = 0;
+        double distance = 0;
+        int easy = 0, moderate = 0, hard = 0, veryHard = 0;
+        List<Hike> upcoming = new ArrayList<>();
+        for (Hike hike : hikes) {
+            observations += db.helper.getObservationsForHike(hike.getId()).size();
+            distance += hike.getLength();
+            switch (hike.getDifficulty()) {
+                case EASY:
+                    easy++;
+                    break;
+                case MODERATE:
+                    moderate++;
+                    break;
+                case HARD:
+                    hard++;
+                    break;
+                case VERY_HARD:
+                    veryHard++;
+                    break;
+                default:
+                    break;
+            }
+            Long day = DatabaseHelper.toEpochDay(hike.getDate());
+            if (day != null && day > today) {
+                upcoming.add(hike);
+            }
+        }
+        upcoming.sort(Comparator.comparingLong((Hike hike) -> DatabaseHelper.toEpochDay(hike.getDate()))
+                .thenComparingInt(Hike::getId));
+        return new HikeStatistics(hikes.size(), observations, distance,
+                easy, moderate, hard, veryHard, upcoming);
+    }
+
+    private static List<Integer> ids(List<Hike> hikes) {
+        List<Integer> ids = new ArrayList<>(hikes.size());
+        for (Hike hike : hikes) {
+            ids.add(hike.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.m_hike.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.m_hike.models.Difficulty;
+import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.Observation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A DatabaseHelper on a throwaway file (never the app's MHikeDB), plus row
+ * factories and timing for the instrumented database tests and benchmarks.
+ */
+final class TestDatabase {
+
+    static final String TAG = "MHikeBenchmark";
+
+    private final String name;
+    final DatabaseHelper helper;
+
+    private TestDatabase(String name) {
+        this.name = name;
+        context().deleteDatabase(name);
+        helper = DatabaseHelper.openStandalone(context(), name);
+    }
+
+    static TestDatabase create(String name) {
+        return new TestDatabase(name);
+    }
+
+    static Context context() {
+        return InstrumentationRegistry.getInstrumentation().getTargetContext();
+    }
+
+    void delete() {
+        helper.close();
+        context().deleteDatabase(name);
+    }
+
+    // Distinct name/location per i, dates spread over a few years
+    static Hike hike(int i) {
+        Difficulty[] levels = Difficulty.selectable();
+        return new Hike("Hike " + i, "Location " + (i % 500),
+                String.format(Locale.ROOT, "%02d/%02d/%04d", 1 + i % 28, 1 + i % 12, 2020 + i % 5),
+                i % 2 == 0 ? "Yes" : "No", 1 + (i % 300) / 10.0, levels[i % levels.length],
+                "Description of hike " + i, "2-4 hours", 1 + i % 20);
+    }
+
+    static List<Hike> hikes(int count) {
+        List<Hike> hikes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hikes.add(hike(i));
+        }
+        return hikes;
+    }
+
+    static Observation observation(long hikeId, int i) {
+        return new Observation((int) hikeId, "Observation " + i,
+                String.format(Locale.ROOT, "%02d:%02d", i / 60 % 24, i % 60), "Comment " + i);
+    }
+
+    // Insert count hikes in one batch; returns their ids in order
+    long[] insertHikes(int count) {
+        return helper.addHikes(hikes(count)).getIds();
+    }
+
+    long insertObservations(long hikeId, int count) {
+        List<Observation> observations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            observations.add(observation(hikeId, i));
+        }
+        return helper.addObservations(observations).getInsertedCount();
+    }
+
+    // EXPLAIN QUERY PLAN detail lines of a statement, in plan order
+    List<String> queryPlan(String sql, String[] args) {
+        List<String> details = new ArrayList<>();
+        try (Cursor cursor = helper.getReadableDatabase().rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                details.add(cursor.getString(detail));
+            }
+        }
+        return details;
+    }
+
+    // Wall time of one run in milliseconds, logged under TAG
+    static double timeMillis(String label, Runnable run) {
+        long start = System.nanoTime();
+        run.run();
+        double millis = (System.nanoTime() - start) / 1e6;
+        Log.i(TAG, String.format(Locale.ROOT, "%s: %.1f ms", label, millis));
+        return millis;
+    }
+}
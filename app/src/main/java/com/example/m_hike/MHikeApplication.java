@@ -0,0 +1,66 @@
+package com.example.m_hike;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.pm.ApplicationInfo;
+import android.os.StrictMode;
+import android.util.Log;
+
+import com.example.m_hike.database.DatabaseExecutor;
+import com.example.m_hike.database.DatabaseHelper;
+
+import java.util.List;
+
+public class MHikeApplication extends Application {
+
+    private static final String TAG = "MHikeApplication";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Debug builds: flag any database/disk access that slips back onto the main thread
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .penaltyLog()
+                    .build());
+            verifyStatistics();
+        }
+    }
+
+    // Check the trigger-maintained statistics row against the live tables (repairs it if needed).
+    // The connection it opens stays open for the first screen.
+    private void verifyStatistics() {
+        DatabaseExecutor.execute(() -> {
+            DatabaseHelper dbHelper = DatabaseHelper.getInstance(this);
+            try {
+                List<String> differences = dbHelper.verifyStatistics();
+                if (!differences.isEmpty()) {
+                    Log.w(TAG, "Statistics table was out of date, rebuilt: " + differences);
+                }
+            } finally {
+                dbHelper.release();
+            }
+        });
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // UI no longer visible: good moment to shrink the write-ahead log
+        if (level == ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            DatabaseHelper.checkpointInBackground();
+        }
+        // App is in the background and about to be killed: close the shared connection
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_COMPLETE) {
+            DatabaseHelper.shutdown();
+        }
+    }
+
+    @Override
+    public void onTerminate() {
+        super.onTerminate();
+        DatabaseHelper.shutdown();
+    }
+}
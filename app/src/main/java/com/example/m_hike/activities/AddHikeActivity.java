@@ -11,6 +11,7 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.RadioButton;
 import android.widget.RadioGroup;
@@ -21,8 +22,12 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.m_hike.R;
+import com.example.m_hike.adapters.SuggestionAdapter;
+import com.example.m_hike.database.DatabaseExecutor;
 import com.example.m_hike.database.DatabaseHelper;
+import com.example.m_hike.models.Difficulty;
 import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.HikeValidator;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.textfield.TextInputEditText;
 
@@ -30,7 +35,8 @@ import java.util.Calendar;
 
 public class AddHikeActivity extends AppCompatActivity {
     // UI Components
-    private TextInputEditText etHikeName, etLocation, etDate, etLength, etDescription, etGroupSize;
+    private TextInputEditText etHikeName, etDate, etLength, etDescription, etGroupSize;
+    private AutoCompleteTextView etLocation;
     private RadioGroup rgParking;
     private Spinner spinnerDifficulty, spinnerDuration;
     private Button btnSave, btnCancel;
@@ -39,7 +45,7 @@ public class AddHikeActivity extends AppCompatActivity {
     private DatabaseHelper dbHelper;
 
     // Data arrays for spinners
-    private final String[] difficultyLevels = {"Easy", "Moderate", "Hard", "Very Hard"};
+    private final Difficulty[] difficultyLevels = Difficulty.selectable();
     private final String[] durationOptions = {"Less than 1 hour", "1-2 hours", "2-4 hours",
             "4-6 hours", "6-8 hours", "More than 8 hours"};
 
@@ -56,11 +62,21 @@ public class AddHikeActivity extends AppCompatActivity {
             }
             toolbar.setNavigationOnClickListener(v -> finish());
         }
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
         initializeViews();
         setupSpinners();
         setupDatePicker();
         setupButtonListeners();
+        setupLocationSuggestions();
+    }
+
+    // Suggest locations already used by other hikes
+    private void setupLocationSuggestions() {
+        etLocation.setAdapter(new SuggestionAdapter(this, dbHelper::suggestLocations));
+        DatabaseExecutor.read(this, () -> {
+            dbHelper.warmUpSuggestions();
+            return null;
+        }, null);
     }
 
     // Initialize all UI components
@@ -83,7 +99,7 @@ public class AddHikeActivity extends AppCompatActivity {
     // Setup spinners with data
     private void setupSpinners() {
         // Difficulty Spinner
-        ArrayAdapter<String> difficultyAdapter = new ArrayAdapter<>(this,
+        ArrayAdapter<Difficulty> difficultyAdapter = new ArrayAdapter<>(this,
                 android.R.layout.simple_spinner_item, difficultyLevels);
         difficultyAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         spinnerDifficulty.setAdapter(difficultyAdapter);
@@ -135,61 +151,15 @@ public class AddHikeActivity extends AppCompatActivity {
 
         int selectedParkingId = rgParking.getCheckedRadioButtonId();
 
-        String difficulty = spinnerDifficulty.getSelectedItem().toString();
+        Difficulty difficulty = (Difficulty) spinnerDifficulty.getSelectedItem();
         String duration = spinnerDuration.getSelectedItem().toString();
 
-        if (name.isEmpty()) {
-            showError("Please enter hike name");
-            etHikeName.requestFocus();
-            return;
-        }
-        if (location.isEmpty()) {
-            showError("Please enter location");
-            etLocation.requestFocus();
-            return;
-        }
-        if (date.isEmpty()) {
-            showError("Please select date");
-            etDate.requestFocus();
-            return;
-        }
-        if (lengthStr.isEmpty()) {
-            showError("Please enter length");
-            etLength.requestFocus();
-            return;
-        }
-        if (selectedParkingId == -1) {
-            showError("Please select parking option");
-            rgParking.requestFocus();
-            return;
-        }
-
-        double length;
-        try {
-            length = Double.parseDouble(lengthStr);
-            if (length <= 0) {
-                showError("Length must be a positive number");
-                etLength.requestFocus();
-                return;
-            }
-        } catch (NumberFormatException e) {
-            showError("Please enter a valid number for length");
-            etLength.requestFocus();
-            return;
-        }
-
-        RadioButton selectedParking = findViewById(selectedParkingId);
-        String parking = selectedParking.getText().toString();
-
+        // Only parsing happens here; the field rules live in HikeValidator
+        double length = parseLength(lengthStr);
         int groupSize = 0;
         if (!groupSizeStr.isEmpty()) {
             try {
                 groupSize = Integer.parseInt(groupSizeStr);
-                if (groupSize <= 0) {
-                    showError("Group size must be greater than 0");
-                    etGroupSize.requestFocus();
-                    return;
-                }
             } catch (NumberFormatException e) {
                 showError("Please enter a valid number for group size");
                 etGroupSize.requestFocus();
@@ -197,12 +167,59 @@ public class AddHikeActivity extends AppCompatActivity {
             }
         }
 
-        showConfirmationDialog(name, location, date, length, difficulty, duration, parking, description, groupSize);
+        String parking = null;
+        if (selectedParkingId != -1) {
+            RadioButton selectedParking = findViewById(selectedParkingId);
+            parking = selectedParking.getText().toString();
+        }
+
+        Hike hike = new Hike(name, location, date, parking, length, difficulty, description, duration, groupSize);
+        HikeValidator.Problem problem = HikeValidator.check(hike);
+        if (problem != null) {
+            showError(problem.message);
+            focusField(problem.field);
+            return;
+        }
+
+        showConfirmationDialog(hike);
+    }
+
+    // NaN (rejected by HikeValidator) when empty or not a number
+    private static double parseLength(String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private void focusField(HikeValidator.Field field) {
+        switch (field) {
+            case NAME:
+                etHikeName.requestFocus();
+                break;
+            case LOCATION:
+                etLocation.requestFocus();
+                break;
+            case DATE:
+                etDate.requestFocus();
+                break;
+            case PARKING:
+                rgParking.requestFocus();
+                break;
+            case LENGTH:
+                etLength.requestFocus();
+                break;
+            case GROUP_SIZE:
+                etGroupSize.requestFocus();
+                break;
+            case DIFFICULTY:
+                spinnerDifficulty.requestFocus();
+                break;
+        }
     }
 
-    private void showConfirmationDialog(String name, String location, String date, double length,
-                                        String difficulty, String duration, String parking,
-                                        String description, int groupSize) {
+    private void showConfirmationDialog(Hike hike) {
         LayoutInflater inflater = getLayoutInflater();
         View dialogView = inflater.inflate(R.layout.dialog_confirm_hike, null);
 
@@ -216,15 +233,15 @@ public class AddHikeActivity extends AppCompatActivity {
         TextView tvDescription = dialogView.findViewById(R.id.tvConfirmDescription);
         TextView tvGroupSize = dialogView.findViewById(R.id.tvConfirmGroupSize);
 
-        tvName.setText(name);
-        tvLocation.setText(location);
-        tvDate.setText(date);
-        tvLength.setText(getString(R.string.length_km, String.valueOf(length)));
-        tvDifficulty.setText(difficulty);
-        tvDuration.setText(duration);
-        tvParking.setText(parking);
-        tvDescription.setText(description.isEmpty() ? "N/A" : description);
-        tvGroupSize.setText(groupSize > 0 ? String.valueOf(groupSize) : "N/A");
+        tvName.setText(hike.getName());
+        tvLocation.setText(hike.getLocation());
+        tvDate.setText(hike.getDate());
+        tvLength.setText(getString(R.string.length_km, String.valueOf(hike.getLength())));
+        tvDifficulty.setText(hike.getDifficulty().getLabel());
+        tvDuration.setText(hike.getEstimatedDuration());
+        tvParking.setText(hike.getParkingAvailable());
+        tvDescription.setText(hike.getDescription().isEmpty() ? "N/A" : hike.getDescription());
+        tvGroupSize.setText(hike.getMaxGroupSize() > 0 ? String.valueOf(hike.getMaxGroupSize()) : "N/A");
 
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setView(dialogView);
@@ -235,31 +252,32 @@ public class AddHikeActivity extends AppCompatActivity {
 
         btnEdit.setOnClickListener(v -> dialog.dismiss());
         btnConfirm.setOnClickListener(v -> {
-            saveHikeToDatabase(name, location, date, length, difficulty, duration, parking, description, groupSize);
+            saveHikeToDatabase(hike);
             dialog.dismiss();
         });
 
         dialog.show();
     }
 
-    private void saveHikeToDatabase(String name, String location, String date,
-                                    double length, String difficulty, String duration,
-                                    String parking, String description, int groupSize) {
-        try {
-            Hike hike = new Hike(name, location, date, parking, length, difficulty, description, duration, groupSize);
-            long id = dbHelper.addHike(hike);
-
-            if (id > 0) {
-                Toast.makeText(this, "Hike saved successfully!", Toast.LENGTH_LONG).show();
-                Intent intent = new Intent(this, MainActivity.class);
-                startActivity(intent);
-            } else {
-                showError("Failed to save hike. Please try again.");
+    private void saveHikeToDatabase(Hike hike) {
+        DatabaseExecutor.write(this, () -> dbHelper.addHike(hike), new DatabaseExecutor.Callback<Long>() {
+            @Override
+            public void onResult(Long id) {
+                if (id > 0) {
+                    Toast.makeText(AddHikeActivity.this, "Hike saved successfully!", Toast.LENGTH_LONG).show();
+                    Intent intent = new Intent(AddHikeActivity.this, MainActivity.class);
+                    startActivity(intent);
+                } else {
+                    showError("Failed to save hike. Please try again.");
+                }
             }
-        } catch (Exception e) {
-            showError("Error: " + e.getMessage());
-            Log.e("AddHike", "Save error", e);
-        }
+
+            @Override
+            public void onError(Exception e) {
+                showError("Error: " + e.getMessage());
+                Log.e("AddHike", "Save error", e);
+            }
+        });
     }
 
     private void showError(String message) {
@@ -270,7 +288,7 @@ public class AddHikeActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
         if (dbHelper != null) {
-            dbHelper.close();
+            dbHelper.release();
         }
     }
 }
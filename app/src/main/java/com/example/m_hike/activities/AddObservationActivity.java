@@ -12,6 +12,7 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.m_hike.R;
+import com.example.m_hike.database.DatabaseExecutor;
 import com.example.m_hike.database.DatabaseHelper;
 import com.example.m_hike.models.Hike;
 import com.example.m_hike.models.Observation;
@@ -58,7 +59,7 @@ public class AddObservationActivity extends AppCompatActivity {
             return;
         }
 
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
 
         // Initialize views
         initializeViews();
@@ -90,13 +91,15 @@ public class AddObservationActivity extends AppCompatActivity {
 
     // Load hike information from database
     private void loadHikeInfo() {
-        currentHike = dbHelper.getHikeById(hikeId);
-        if (currentHike != null) {
-            tvObsHikeName.setText(currentHike.getName());
-        } else {
-            Toast.makeText(this, "Error: Hike not found", Toast.LENGTH_SHORT).show();
-            finish();
-        }
+        DatabaseExecutor.read(this, () -> dbHelper.getHikeById(hikeId), hike -> {
+            currentHike = hike;
+            if (currentHike != null) {
+                tvObsHikeName.setText(currentHike.getName());
+            } else {
+                Toast.makeText(this, "Error: Hike not found", Toast.LENGTH_SHORT).show();
+                finish();
+            }
+        });
     }
 
     // Setup date time picker
@@ -178,18 +181,23 @@ public class AddObservationActivity extends AppCompatActivity {
         // Save to database
         Observation newObservation = new Observation(hikeId, observation, time, comment);
 
-        try {
-            long id = dbHelper.addObservation(newObservation);
-            if (id > 0) {
-                Toast.makeText(this, "Observation added successfully.", Toast.LENGTH_SHORT).show();
-                finish();
-            } else {
-                showError("Failed to add observation. Please try again.");
+        DatabaseExecutor.write(this, () -> dbHelper.addObservation(newObservation), new DatabaseExecutor.Callback<Long>() {
+            @Override
+            public void onResult(Long id) {
+                if (id > 0) {
+                    Toast.makeText(AddObservationActivity.this, "Observation added successfully.", Toast.LENGTH_SHORT).show();
+                    finish();
+                } else {
+                    showError("Failed to add observation. Please try again.");
+                }
             }
-        } catch (Exception e) {
-            showError("Error: " + e.getMessage());
-            Log.e("AddObservation", "Add failed", e);
-        }
+
+            @Override
+            public void onError(Exception e) {
+                showError("Error: " + e.getMessage());
+                Log.e("AddObservation", "Add failed", e);
+            }
+        });
     }
 
     // Safe text extraction
@@ -207,7 +215,7 @@ public class AddObservationActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
         if (dbHelper != null) {
-            dbHelper.close();
+            dbHelper.release();
         }
     }
 }
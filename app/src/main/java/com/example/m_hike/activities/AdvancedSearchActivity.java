@@ -1,11 +1,16 @@
 package com.example.m_hike.activities;
 
 import android.app.DatePickerDialog;
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
+import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
+import android.widget.EditText;
 import android.widget.LinearLayout;
+import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -15,12 +20,18 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.m_hike.R;
 import com.example.m_hike.adapters.HikeAdapter;
+import com.example.m_hike.adapters.SuggestionAdapter;
+import com.example.m_hike.database.DatabaseExecutor;
 import com.example.m_hike.database.DatabaseHelper;
+import com.example.m_hike.database.HikeQuery;
+import com.example.m_hike.database.HikeSort;
+import com.example.m_hike.models.Difficulty;
 import com.example.m_hike.models.Hike;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.textfield.TextInputEditText;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
@@ -30,10 +41,14 @@ public class AdvancedSearchActivity extends AppCompatActivity
     implements HikeAdapter.OnHikeActionListener {
 
     private static final String TAG = "AdvancedSearchActivity"; // corrected constant name
+    private static final String ANY_DIFFICULTY = "Any";
+    private static final int MAX_SIMILAR_HIKES = 20;
 
     // UI components
-    private TextInputEditText etSearchName, etSearchLocation, etSearchDate,
+    private AutoCompleteTextView etSearchName, etSearchLocation;
+    private TextInputEditText etSearchDate,
             etSearchLengthMin, etSearchLengthMax;
+    private Spinner spinnerSearchDifficulty;
     private Button btnSearch, btnClearSearch;
     private RecyclerView recyclerViewSearchResults;
     private LinearLayout emptySearchLayout;
@@ -61,7 +76,7 @@ public class AdvancedSearchActivity extends AppCompatActivity
         }
 
         // Initialize database
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
 
         // Initialize views
         initializeViews();
@@ -74,6 +89,12 @@ public class AdvancedSearchActivity extends AppCompatActivity
 
         // Setup date picker for date input
         setupDatePicker();
+
+        // Setup difficulty filter
+        setupDifficultySpinner();
+
+        // Name/location suggestions from the in-memory index
+        setupSuggestions();
     }
 
     private void initializeViews() {
@@ -82,6 +103,7 @@ public class AdvancedSearchActivity extends AppCompatActivity
         etSearchDate = findViewById(R.id.etSearchDate);
         etSearchLengthMin = findViewById(R.id.etSearchLengthMin);
         etSearchLengthMax = findViewById(R.id.etSearchLengthMax);
+        spinnerSearchDifficulty = findViewById(R.id.spinnerSearchDifficulty);
         btnSearch = findViewById(R.id.btnSearch);
         btnClearSearch = findViewById(R.id.btnClearSearch);
         recyclerViewSearchResults = findViewById(R.id.recyclerViewSearchResults);
@@ -116,6 +138,32 @@ public class AdvancedSearchActivity extends AppCompatActivity
         });
     }
 
+    private void setupSuggestions() {
+        etSearchName.setAdapter(new SuggestionAdapter(this, dbHelper::suggestHikeNames));
+        etSearchLocation.setAdapter(new SuggestionAdapter(this, dbHelper::suggestLocations));
+        DatabaseExecutor.read(this, () -> {
+            dbHelper.warmUpSuggestions();
+            return null;
+        }, null);
+    }
+
+    // Difficulty filter: "Any" followed by the selectable levels
+    private void setupDifficultySpinner() {
+        List<String> options = new ArrayList<>();
+        options.add(ANY_DIFFICULTY);
+        options.addAll(Arrays.asList(Difficulty.selectableLabels()));
+        ArrayAdapter<String> difficultyAdapter = new ArrayAdapter<>(this,
+                android.R.layout.simple_spinner_item, options);
+        difficultyAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinnerSearchDifficulty.setAdapter(difficultyAdapter);
+    }
+
+    // null when "Any" is selected
+    private Difficulty selectedDifficulty() {
+        int position = spinnerSearchDifficulty.getSelectedItemPosition();
+        return position > 0 ? Difficulty.selectable()[position - 1] : null;
+    }
+
     // Setup button click listeners
     private void setupButtonListeners() {
         // Search button
@@ -134,7 +182,8 @@ public class AdvancedSearchActivity extends AppCompatActivity
         String maxLengthStr = safeText(etSearchLengthMax);
 
         // Check if at least one criterion
-        if (name.isEmpty() && location.isEmpty() && date.isEmpty() && minLengthStr.isEmpty() && maxLengthStr.isEmpty()) {
+        if (name.isEmpty() && location.isEmpty() && date.isEmpty() && minLengthStr.isEmpty() && maxLengthStr.isEmpty()
+                && selectedDifficulty() == null) {
             Toast.makeText(this, "Please enter at least one search criteria", Toast.LENGTH_SHORT).show();
             return;
         }
@@ -170,33 +219,57 @@ public class AdvancedSearchActivity extends AppCompatActivity
         }
 
         // Perform search
-        try {
-            List<Hike> newResults = dbHelper.advancedSearchHikes(
-                    name.isEmpty() ? null : name,
-                    location.isEmpty() ? null : location,
-                    date.isEmpty() ? null : date,
-                    minLength,
-                    maxLength
-            );
-
-            // Update reference & adapter
-            searchResults = newResults;
-            searchAdapter.updateList(newResults); // replaces notifyDataSetChanged()
-            updateSearchResultsUI();
-
-            // Show message
-            if (searchResults.isEmpty()) {
-                Toast.makeText(this, "No hikes found matching your criteria",
-                        Toast.LENGTH_SHORT).show();
-            } else {
-                Toast.makeText(this, searchResults.size() + " hike(s) found",
+        final Double min = minLength;
+        final Double max = maxLength;
+        final Difficulty difficulty = selectedDifficulty();
+        // Only a plain name/location search falls back to similar spellings
+        final boolean fuzzyAllowed = date.isEmpty() && min == null && max == null && difficulty == null;
+        final boolean[] showingSimilar = {false};
+        // Results follow the list order chosen in Settings
+        final HikeSort sort = HikeSort.fromIndex(getSharedPreferences("MHikePrefs", Context.MODE_PRIVATE)
+                .getInt("sort_order", 0));
+        DatabaseExecutor.read(this, () -> {
+            List<Hike> exact = dbHelper.queryHikes(new HikeQuery()
+                    .setNameContains(name)
+                    .setLocationContains(location)
+                    .setDate(date)
+                    .setLengthRange(min, max)
+                    .setDifficulties(difficulty)
+                    .setSort(sort)).getHikes();
+            if (!exact.isEmpty() || !fuzzyAllowed) {
+                return exact;
+            }
+            List<Hike> similar = dbHelper.fuzzySearchHikes(name + " " + location, MAX_SIMILAR_HIKES);
+            showingSimilar[0] = !similar.isEmpty();
+            return similar;
+        }, new DatabaseExecutor.Callback<List<Hike>>() {
+            @Override
+            public void onResult(List<Hike> newResults) {
+                // Update reference & adapter
+                searchResults = newResults;
+                searchAdapter.updateList(newResults); // replaces notifyDataSetChanged()
+                updateSearchResultsUI();
+
+                // Show message
+                if (searchResults.isEmpty()) {
+                    Toast.makeText(AdvancedSearchActivity.this, "No hikes found matching your criteria",
+                            Toast.LENGTH_SHORT).show();
+                } else if (showingSimilar[0]) {
+                    Toast.makeText(AdvancedSearchActivity.this, "No exact matches - showing similar hikes",
+                            Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(AdvancedSearchActivity.this, searchResults.size() + " hike(s) found",
+                            Toast.LENGTH_SHORT).show();
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Toast.makeText(AdvancedSearchActivity.this, "Error performing search: " + e.getMessage(),
                         Toast.LENGTH_SHORT).show();
+                Log.e(TAG, "Error performing search", e); // uses TAG
             }
-        } catch (Exception e) {
-            Toast.makeText(this, "Error performing search: " + e.getMessage(),
-                    Toast.LENGTH_SHORT).show();
-            Log.e(TAG, "Error performing search", e); // uses TAG
-        }
+        });
     }
 
     // Clear all search
@@ -206,6 +279,7 @@ public class AdvancedSearchActivity extends AppCompatActivity
         etSearchDate.setText("");
         etSearchLengthMin.setText("");
         etSearchLengthMax.setText("");
+        spinnerSearchDifficulty.setSelection(0);
         searchResults = new ArrayList<>(); // new empty list
         searchAdapter.updateList(searchResults); // replaces notifyDataSetChanged()
         updateSearchResultsUI();
@@ -239,26 +313,41 @@ public class AdvancedSearchActivity extends AppCompatActivity
 
     // Handle delete hike click
     @Override
-    public void onDeleteClick(Hike hike, int position) {
+    public void onDeleteClick(Hike hike) {
         new android.app.AlertDialog.Builder(this)
                 .setTitle("Delete Hike")
                 .setMessage("Are you sure you want to delete \"" + hike.getName() + "\"?")
                 .setIcon(android.R.drawable.ic_dialog_alert)
-                .setPositiveButton("Delete", (dialog, which) -> {
-                    try {
-                        dbHelper.deleteHike(hike.getId());
-                        searchAdapter.removeItem(position);
-                        updateSearchResultsUI();
-                        Toast.makeText(AdvancedSearchActivity.this,
-                                "Hike deleted successfully",
-                                Toast.LENGTH_SHORT).show();
-                    } catch (Exception e) {
-                        Toast.makeText(AdvancedSearchActivity.this,
-                                "Error deleting hike: " + e.getMessage(),
-                                Toast.LENGTH_SHORT).show();
-                        Log.e("AdvancedSearch", "Error deleting hike", e);
-                    }
-                })
+                .setPositiveButton("Delete", (dialog, which) ->
+                        DatabaseExecutor.write(this, () -> {
+                            dbHelper.deleteHike(hike.getId());
+                            return null;
+                        }, new DatabaseExecutor.Callback<Void>() {
+                            @Override
+                            public void onResult(Void result) {
+                                // The adapter keeps its own copy, so drop the hike from ours too
+                                List<Hike> remaining = new ArrayList<>(searchResults.size());
+                                for (Hike result : searchResults) {
+                                    if (result.getId() != hike.getId()) {
+                                        remaining.add(result);
+                                    }
+                                }
+                                searchResults = remaining;
+                                searchAdapter.updateList(searchResults);
+                                updateSearchResultsUI();
+                                Toast.makeText(AdvancedSearchActivity.this,
+                                        "Hike deleted successfully",
+                                        Toast.LENGTH_SHORT).show();
+                            }
+
+                            @Override
+                            public void onError(Exception e) {
+                                Toast.makeText(AdvancedSearchActivity.this,
+                                        "Error deleting hike: " + e.getMessage(),
+                                        Toast.LENGTH_SHORT).show();
+                                Log.e("AdvancedSearch", "Error deleting hike", e);
+                            }
+                        }))
                 .setNegativeButton("Cancel", null)
                 .show();
     }
@@ -276,11 +365,11 @@ public class AdvancedSearchActivity extends AppCompatActivity
     protected void onDestroy() {
         super.onDestroy();
         if (dbHelper != null) {
-            dbHelper.close();
+            dbHelper.release();
         }
     }
 
-    private String safeText(TextInputEditText edit) {
+    private String safeText(EditText edit) {
         CharSequence cs = edit.getText();
         return cs != null ? cs.toString().trim() : "";
     }
@@ -14,8 +14,11 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.m_hike.R;
+import com.example.m_hike.database.DatabaseExecutor;
 import com.example.m_hike.database.DatabaseHelper;
+import com.example.m_hike.models.Difficulty;
 import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.HikeValidator;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.textfield.TextInputEditText;
 
@@ -38,7 +41,7 @@ public class EditHikeActivity extends AppCompatActivity {
     private int hikeId;
 
     // Data arrays
-    private final String[] difficultyLevels = {"Easy", "Moderate", "Hard", "Very Hard"};
+    private final Difficulty[] difficultyLevels = Difficulty.selectable();
     private final String[] durationOptions = {"Less than 1 hour", "1-2 hours", "2-4 hours",
             "4-6 hours", "6-8 hours", "More than 8 hours"};
 
@@ -75,7 +78,7 @@ public class EditHikeActivity extends AppCompatActivity {
         Log.d("EditHikeActivity", "Valid hike ID received, continuing...");
 
         // Initialize database
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
 
         // Initialize views
         initializeViews();
@@ -117,7 +120,7 @@ public class EditHikeActivity extends AppCompatActivity {
 
     private void setupSpinners() {
         // Difficulty spinner
-        ArrayAdapter<String> difficultyAdapter = new ArrayAdapter<>(
+        ArrayAdapter<Difficulty> difficultyAdapter = new ArrayAdapter<>(
                 this, android.R.layout.simple_spinner_item, difficultyLevels);
         difficultyAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         spinnerEditDifficulty.setAdapter(difficultyAdapter);
@@ -152,7 +155,14 @@ public class EditHikeActivity extends AppCompatActivity {
     // Load existing hike data into form
 
     private void loadHikeData() {
-        currentHike = dbHelper.getHikeById(hikeId);
+        DatabaseExecutor.read(this, () -> dbHelper.getHikeById(hikeId), this::populateForm);
+    }
+
+
+    // Populate form fields from the loaded hike
+
+    private void populateForm(Hike hike) {
+        currentHike = hike;
 
         if (currentHike == null) {
             Toast.makeText(this, "Error: Hike not found", Toast.LENGTH_SHORT).show();
@@ -180,7 +190,7 @@ public class EditHikeActivity extends AppCompatActivity {
 
         // Set difficulty spinner
         for (int i = 0; i < difficultyLevels.length; i++) {
-            if (difficultyLevels[i].equals(currentHike.getDifficulty())) {
+            if (difficultyLevels[i] == currentHike.getDifficulty()) {
                 spinnerEditDifficulty.setSelection(i);
                 break;
             }
@@ -211,6 +221,10 @@ public class EditHikeActivity extends AppCompatActivity {
     // Validate all required fields and update hike
 
     private void validateAndUpdate() {
+        if (currentHike == null) {
+            // Still loading
+            return;
+        }
         CharSequence nameCs = etEditHikeName.getText();
         String name = nameCs != null ? nameCs.toString().trim() : "";
         CharSequence locCs = etEditLocation.getText();
@@ -228,68 +242,15 @@ public class EditHikeActivity extends AppCompatActivity {
         int selectedParkingId = rgEditParking.getCheckedRadioButtonId();
 
         // Get spinner values
-        String difficulty = spinnerEditDifficulty.getSelectedItem().toString();
+        Difficulty difficulty = (Difficulty) spinnerEditDifficulty.getSelectedItem();
         String duration = spinnerEditDuration.getSelectedItem().toString();
 
-        // Validation - Check required fields
-        if (name.isEmpty()) {
-            showError("Please enter hike name");
-            etEditHikeName.requestFocus();
-            return;
-        }
-
-        if (location.isEmpty()) {
-            showError("Please enter location");
-            etEditLocation.requestFocus();
-            return;
-        }
-
-        if (date.isEmpty()) {
-            showError("Please select a date");
-            etEditDate.requestFocus();
-            return;
-        }
-
-        if (selectedParkingId == -1) {
-            showError("Please select parking availability");
-            return;
-        }
-
-        if (lengthStr.isEmpty()) {
-            showError("Please enter hike length");
-            etEditLength.requestFocus();
-            return;
-        }
-
-        // Validate length is a valid number
-        double length;
-        try {
-            length = Double.parseDouble(lengthStr);
-            if (length <= 0) {
-                showError("Length must be greater than 0");
-                etEditLength.requestFocus();
-                return;
-            }
-        } catch (NumberFormatException e) {
-            showError("Please enter a valid number for length");
-            etEditLength.requestFocus();
-            return;
-        }
-
-        // Get parking value
-        RadioButton selectedParking = findViewById(selectedParkingId);
-        String parking = selectedParking.getText().toString();
-
-        // Validate and get group size (optional field)
+        // Only parsing happens here; the field rules live in HikeValidator
+        double length = parseLength(lengthStr);
         int groupSize = 0;
         if (!groupSizeStr.isEmpty()) {
             try {
                 groupSize = Integer.parseInt(groupSizeStr);
-                if (groupSize <= 0) {
-                    showError("Group size must be greater than 0");
-                    etEditGroupSize.requestFocus();
-                    return;
-                }
             } catch (NumberFormatException e) {
                 showError("Please enter a valid number for group size");
                 etEditGroupSize.requestFocus();
@@ -297,32 +258,88 @@ public class EditHikeActivity extends AppCompatActivity {
             }
         }
 
-        // Update hike object
-        currentHike.setName(name);
-        currentHike.setLocation(location);
-        currentHike.setDate(date);
-        currentHike.setParkingAvailable(parking);
-        currentHike.setLength(length);
-        currentHike.setDifficulty(difficulty);
-        currentHike.setDescription(description);
-        currentHike.setEstimatedDuration(duration);
-        currentHike.setMaxGroupSize(groupSize);
+        String parking = null;
+        if (selectedParkingId != -1) {
+            RadioButton selectedParking = findViewById(selectedParkingId);
+            parking = selectedParking.getText().toString();
+        }
+
+        // Edit a copy so a rejected edit leaves the loaded hike untouched
+        Hike edited = new Hike(currentHike);
+        edited.setName(name);
+        edited.setLocation(location);
+        edited.setDate(date);
+        edited.setParkingAvailable(parking);
+        edited.setLength(length);
+        edited.setDifficulty(difficulty);
+        edited.setDescription(description);
+        edited.setEstimatedDuration(duration);
+        edited.setMaxGroupSize(groupSize);
+
+        HikeValidator.Problem problem = HikeValidator.check(edited);
+        if (problem != null) {
+            showError(problem.message);
+            focusField(problem.field);
+            return;
+        }
+        currentHike = edited;
 
         // Update in database
-        try {
-            int rowsAffected = dbHelper.updateHike(currentHike);
-            if (rowsAffected > 0) {
-                Toast.makeText(this, "Hike updated successfully! ✅", Toast.LENGTH_LONG).show();
-                finish(); // Return to previous screen
-            } else {
-                showError("Failed to update hike. Please try again.");
+        final Hike toUpdate = currentHike;
+        DatabaseExecutor.write(this, () -> dbHelper.updateHike(toUpdate), new DatabaseExecutor.Callback<Integer>() {
+            @Override
+            public void onResult(Integer rowsAffected) {
+                if (rowsAffected > 0) {
+                    Toast.makeText(EditHikeActivity.this, "Hike updated successfully! ✅", Toast.LENGTH_LONG).show();
+                    finish(); // Return to previous screen
+                } else {
+                    showError("Failed to update hike. Please try again.");
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                showError("Error: " + e.getMessage());
+                Log.e("EditHike", "Update error", e);
             }
-        } catch (Exception e) {
-            showError("Error: " + e.getMessage());
-            Log.e("EditHike", "Update error", e);
+        });
+    }
+
+
+    // NaN (rejected by HikeValidator) when empty or not a number
+    private static double parseLength(String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
         }
     }
 
+    private void focusField(HikeValidator.Field field) {
+        switch (field) {
+            case NAME:
+                etEditHikeName.requestFocus();
+                break;
+            case LOCATION:
+                etEditLocation.requestFocus();
+                break;
+            case DATE:
+                etEditDate.requestFocus();
+                break;
+            case PARKING:
+                rgEditParking.requestFocus();
+                break;
+            case LENGTH:
+                etEditLength.requestFocus();
+                break;
+            case GROUP_SIZE:
+                etEditGroupSize.requestFocus();
+                break;
+            case DIFFICULTY:
+                spinnerEditDifficulty.requestFocus();
+                break;
+        }
+    }
 
     // Show error message as Toast
 
@@ -334,7 +351,7 @@ public class EditHikeActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
         if (dbHelper != null) {
-            dbHelper.close();
+            dbHelper.release();
         }
     }
 }
\ No newline at end of file
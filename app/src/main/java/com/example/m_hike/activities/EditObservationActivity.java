@@ -11,6 +11,7 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.m_hike.R;
+import com.example.m_hike.database.DatabaseExecutor;
 import com.example.m_hike.database.DatabaseHelper;
 import com.example.m_hike.models.Hike;
 import com.example.m_hike.models.Observation;
@@ -67,7 +68,7 @@ public class EditObservationActivity extends AppCompatActivity {
         }
 
         // Initialize database
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
 
         // Initialize views
         initializeViews();
@@ -99,17 +100,25 @@ public class EditObservationActivity extends AppCompatActivity {
 
     // Load hike information
     private void loadHikeInfo() {
-        currentHike = dbHelper.getHikeById(hikeId);
-        if (currentHike != null) {
-            tvEditObsHikeName.setText(currentHike.getName());
-        }
+        DatabaseExecutor.read(this, () -> dbHelper.getHikeById(hikeId), hike -> {
+            currentHike = hike;
+            if (currentHike != null) {
+                tvEditObsHikeName.setText(currentHike.getName());
+            }
+        });
     }
 
 
     // Load observation data
     private void loadObservationData() {
-        // Get observation from database
-        currentObservation = getObservationById(observationId);
+        // Keyed lookup; also checks the observation belongs to this hike
+        DatabaseExecutor.read(this, () -> dbHelper.getObservationById(observationId, hikeId), this::populateForm);
+    }
+
+
+    // Populate fields from the loaded observation
+    private void populateForm(Observation observation) {
+        currentObservation = observation;
 
         if (currentObservation == null) {
             Toast.makeText(this, "Error: Observation not found",
@@ -128,18 +137,6 @@ public class EditObservationActivity extends AppCompatActivity {
     }
 
 
-    // Get observation by ID
-    private Observation getObservationById(int id) {
-        // Get all observations for this hike and find the one with matching ID
-        for (Observation obs : dbHelper.getObservationsForHike(hikeId)) {
-            if (obs.getId() == id) {
-                return obs;
-            }
-        }
-        return null;
-    }
-
-
     // Parse time string to Calendar object
     private void parseTimeString(String timeString) {
         try {
@@ -224,6 +221,10 @@ public class EditObservationActivity extends AppCompatActivity {
     // Validate and update observation
 
     private void validateAndUpdate() {
+        if (currentObservation == null) {
+            // Still loading
+            return;
+        }
         String observation = safeText(etEditObservation);
         String time = safeText(etEditObsTime);
         String comment = safeText(etEditObsComment);
@@ -247,19 +248,25 @@ public class EditObservationActivity extends AppCompatActivity {
         currentObservation.setComment(comment);
 
         // Update in database
-        try {
-            int rowsAffected = dbHelper.updateObservation(currentObservation);
-            if (rowsAffected > 0) {
-                Toast.makeText(this, "Observation updated successfully! ✅",
-                        Toast.LENGTH_LONG).show();
-                finish();
-            } else {
-                showError("Failed to update observation. Please try again.");
+        final Observation toUpdate = currentObservation;
+        DatabaseExecutor.write(this, () -> dbHelper.updateObservation(toUpdate), new DatabaseExecutor.Callback<Integer>() {
+            @Override
+            public void onResult(Integer rowsAffected) {
+                if (rowsAffected > 0) {
+                    Toast.makeText(EditObservationActivity.this, "Observation updated successfully! ✅",
+                            Toast.LENGTH_LONG).show();
+                    finish();
+                } else {
+                    showError("Failed to update observation. Please try again.");
+                }
             }
-        } catch (Exception e) {
-            Log.e("EditObservation", "Update failed", e);
-            showError("Error: " + e.getMessage());
-        }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e("EditObservation", "Update failed", e);
+                showError("Error: " + e.getMessage());
+            }
+        });
     }
 
 
@@ -273,7 +280,7 @@ public class EditObservationActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
         if (dbHelper != null) {
-            dbHelper.close();
+            dbHelper.release();
         }
     }
 
@@ -2,8 +2,6 @@ package com.example.m_hike.activities;
 
 import android.app.AlertDialog;
 import android.content.Intent;
-import android.graphics.Color;
-import android.graphics.drawable.GradientDrawable;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
@@ -14,7 +12,11 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
 import com.example.m_hike.R;
+import com.example.m_hike.adapters.DifficultyBadges;
+import com.example.m_hike.database.DatabaseChangeNotifier;
+import com.example.m_hike.database.DatabaseExecutor;
 import com.example.m_hike.database.DatabaseHelper;
+import com.example.m_hike.database.ObservableQuery;
 import com.example.m_hike.models.Hike;
 import com.google.android.material.appbar.MaterialToolbar;
 
@@ -25,6 +27,7 @@ public class HikeDetailActivity extends AppCompatActivity {
     private CardView cardDescription;
     private Button btnEditHike, btnDeleteHike, btnViewObservations, btnAddObservation;
     private DatabaseHelper dbHelper;
+    private DifficultyBadges badges;
     private Hike currentHike;
     private int hikeId;
 
@@ -51,12 +54,13 @@ public class HikeDetailActivity extends AppCompatActivity {
         }
 
         // Initialize database
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
+        badges = new DifficultyBadges(this);
 
         // Initialize views
         initializeViews();
 
-        // Load hike details
+        // Load hike details (again only after this hike is edited)
         loadHikeDetails();
 
         // Setup button listeners
@@ -85,14 +89,21 @@ public class HikeDetailActivity extends AppCompatActivity {
 
     // Load hike details from database
     private void loadHikeDetails() {
-        currentHike = dbHelper.getHikeById(hikeId);
+        new ObservableQuery<>(this, () -> dbHelper.getHikeById(hikeId), this::showHikeDetails)
+                .dependsOnRow(DatabaseChangeNotifier.HIKES, hikeId)
+                .observe();
+    }
+
+    // Bind the loaded hike to the views
+    private void showHikeDetails(Hike hike) {
+        currentHike = hike;
         if (currentHike == null) {
             Toast.makeText(this, R.string.na, Toast.LENGTH_SHORT).show();
             finish();
             return;
         }
         tvDetailHikeName.setText(currentHike.getName());
-        tvDetailDifficulty.setText(currentHike.getDifficulty());
+        tvDetailDifficulty.setText(currentHike.getDifficulty().getLabel());
         tvDetailLocation.setText(currentHike.getLocation());
         tvDetailDate.setText(currentHike.getDate());
         tvDetailParking.setText(currentHike.getParkingAvailable());
@@ -111,35 +122,7 @@ public class HikeDetailActivity extends AppCompatActivity {
         } else {
             cardDescription.setVisibility(View.GONE);
         }
-        setDifficultyColor(currentHike.getDifficulty());
-    }
-
-    // Set difficulty badge color based on level
-    private void setDifficultyColor(String difficulty) {
-        GradientDrawable drawable = new GradientDrawable();
-        drawable.setShape(GradientDrawable.RECTANGLE);
-        drawable.setCornerRadius(20 * getResources().getDisplayMetrics().density);
-
-        int color;
-        switch (difficulty.toLowerCase()) {
-            case "easy":
-                color = Color.parseColor("#27AE60"); // Green
-                break;
-            case "moderate":
-                color = Color.parseColor("#F39C12"); // Orange
-                break;
-            case "hard":
-                color = Color.parseColor("#E74C3C"); // Red
-                break;
-            case "very hard":
-                color = Color.parseColor("#8E44AD"); // Purple
-                break;
-            default:
-                color = Color.parseColor("#95A5A6"); // Gray
-        }
-
-        drawable.setColor(color);
-        tvDetailDifficulty.setBackground(drawable);
+        badges.apply(tvDetailDifficulty, currentHike.getDifficulty());
     }
 
     // Setup button listeners
@@ -170,6 +153,9 @@ public class HikeDetailActivity extends AppCompatActivity {
 
     // Show delete confirmation dialog
     private void showDeleteConfirmation() {
+        if (currentHike == null) {
+            return;
+        }
         new AlertDialog.Builder(this)
                 .setTitle(R.string.delete_hike_dialog_title)
                 .setMessage(getString(R.string.delete_hike_dialog_message, currentHike.getName()))
@@ -181,31 +167,32 @@ public class HikeDetailActivity extends AppCompatActivity {
 
     // Delete hike from database
     private void deleteHike() {
-        try {
+        DatabaseExecutor.write(this, () -> {
             dbHelper.deleteHike(hikeId);
-            Toast.makeText(this, R.string.hike_deleted_success, Toast.LENGTH_SHORT).show();
-
-            Intent intent = new Intent(HikeDetailActivity.this, MainActivity.class);
-            intent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP);
-            startActivity(intent);
-            finish();
-        } catch (Exception e) {
-            Toast.makeText(this, "Error deleting hike: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-        }
-    }
+            return null;
+        }, new DatabaseExecutor.Callback<Void>() {
+            @Override
+            public void onResult(Void result) {
+                Toast.makeText(HikeDetailActivity.this, R.string.hike_deleted_success, Toast.LENGTH_SHORT).show();
+
+                Intent intent = new Intent(HikeDetailActivity.this, MainActivity.class);
+                intent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP);
+                startActivity(intent);
+                finish();
+            }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        // Reload data when returning from edit
-        loadHikeDetails();
+            @Override
+            public void onError(Exception e) {
+                Toast.makeText(HikeDetailActivity.this, "Error deleting hike: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
         if (dbHelper != null) {
-            dbHelper.close();
+            dbHelper.release();
         }
     }
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.example.m_hike.activities;
 
 import android.app.AlertDialog;
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
@@ -16,7 +19,13 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.m_hike.activities.AddHikeActivity;
 import com.example.m_hike.adapters.HikeAdapter;
+import com.example.m_hike.database.DatabaseChangeNotifier;
+import com.example.m_hike.database.DatabaseExecutor;
 import com.example.m_hike.database.DatabaseHelper;
+import com.example.m_hike.database.ObservableQuery;
+import com.example.m_hike.database.HikePager;
+import com.example.m_hike.database.HikeSearchSession;
+import com.example.m_hike.database.HikeSort;
 import com.example.m_hike.models.Hike;
 import com.example.m_hike.R;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
@@ -40,6 +49,13 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
     private DatabaseHelper dbHelper;
     private HikeAdapter hikeAdapter;
     private List<Hike> hikeList;
+    private HikePager hikePager;
+    private ObservableQuery<Integer> hikesQuery;
+    private HikeSearchSession searchSession;
+    // Toast the outcome of the next results (explicit searches only, not every keystroke)
+    private boolean announceResults;
+    private int hikeCount; // all hikes (list is paged) or number of search results
+    private boolean showingSearchResults;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -47,7 +63,7 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
         setContentView(R.layout.activity_main);
 
         // Initialize database
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
 
         // Initialize views
         initializeViews();
@@ -61,8 +77,30 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
         // Setup Bottom Navigation
         setupBottomNavigation();
 
-        // Load hikes from database
-        loadHikes();
+        // Load hikes from database (re-run on resume only after hikes changed)
+        hikesQuery = new ObservableQuery<>(this, dbHelper::getHikeCount, this::showAllHikes)
+                .dependsOn(DatabaseChangeNotifier.HIKES)
+                .observe();
+    }
+
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // The sort order may have been changed in Settings
+        HikeSort sort = savedSort();
+        if (sort != hikePager.getSort()) {
+            hikePager.setSort(sort);
+            if (!showingSearchResults) {
+                hikePager.refresh();
+            }
+        }
+    }
+
+    // List order chosen in Settings
+    private HikeSort savedSort() {
+        return HikeSort.fromIndex(getSharedPreferences("MHikePrefs", Context.MODE_PRIVATE)
+                .getInt("sort_order", 0));
     }
 
 
@@ -87,9 +125,51 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
         hikeList = new ArrayList<>();
         hikeAdapter = new HikeAdapter(this, hikeList, this);
 
-        recyclerViewHikes.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerViewHikes.setLayoutManager(layoutManager);
         recyclerViewHikes.setAdapter(hikeAdapter);
         recyclerViewHikes.setHasFixedSize(true);
+
+        // Rows are loaded page by page as the list scrolls
+        hikePager = new HikePager(this, dbHelper, new HikePager.Listener() {
+            @Override
+            public void onRefreshed(List<Hike> hikes) {
+                hikeList = new ArrayList<>(hikes);
+                hikeAdapter.updateList(hikeList);
+                updateUI();
+            }
+
+            @Override
+            public void onAppended(List<Hike> hikes) {
+                hikeAdapter.appendItems(hikes);
+            }
+
+            @Override
+            public void onPrepended(List<Hike> hikes) {
+                hikeAdapter.prependItems(hikes);
+            }
+
+            @Override
+            public void onDroppedFromStart(int count) {
+                hikeAdapter.removeFromStart(count);
+            }
+
+            @Override
+            public void onDroppedFromEnd(int count) {
+                hikeAdapter.removeFromEnd(count);
+            }
+        });
+        hikePager.setSort(savedSort());
+        recyclerViewHikes.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                if (!showingSearchResults) {
+                    hikePager.onScrolled(layoutManager.findFirstVisibleItemPosition(),
+                            layoutManager.findLastVisibleItemPosition(),
+                            hikeAdapter.getItemCount());
+                }
+            }
+        });
     }
 
 
@@ -105,6 +185,36 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
         // Search button
         btnSearch.setOnClickListener(v -> performSearch());
 
+        // Search as you type (debounced, cached, stale queries cancelled)
+        searchSession = new HikeSearchSession(this, dbHelper, new HikeSearchSession.Listener() {
+            @Override
+            public void onResults(String text, List<Hike> results) {
+                showSearchResults(text, results);
+            }
+
+            @Override
+            public void onCleared() {
+                // Field emptied while showing results: back to the full list
+                if (showingSearchResults) {
+                    loadHikes();
+                }
+            }
+        });
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                searchSession.setQuery(s.toString());
+            }
+        });
+
         // Advanced Search button
         btnAdvancedSearch.setOnClickListener(v -> {
             Intent intent = new Intent(MainActivity.this, AdvancedSearchActivity.class);
@@ -152,14 +262,22 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
     // Load all hikes from database
 
     private void loadHikes() {
-        List<Hike> fresh = dbHelper.getAllHikes();
-        hikeList = new ArrayList<>(fresh);
-        hikeAdapter.updateList(hikeList);
+        hikesQuery.reload();
+    }
+
+    // Leave search mode and page through all hikes from the top
+    private void showAllHikes(int count) {
+        showingSearchResults = false;
+        hikeCount = count;
+        if (etSearch.length() > 0) {
+            etSearch.setText("");
+        }
         updateUI();
+        hikePager.refresh();
     }
 
 
-    // Perform search by hike name
+    // Perform full-text search (name, location, description, observations)
 
     private void performSearch() {
         String searchTerm = etSearch.getText().toString().trim();
@@ -170,15 +288,21 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
             return;
         }
 
-        // Search in database
-        List<Hike> results = dbHelper.searchHikesByName(searchTerm);
+        // Search now instead of waiting for the typing pause
+        announceResults = true;
+        searchSession.searchNow(searchTerm);
+    }
 
-        if (results.isEmpty()) {
-            Toast.makeText(this, "No hikes found matching '" + searchTerm + "'",
+    private void showSearchResults(String searchTerm, List<Hike> results) {
+        if (announceResults && results.isEmpty()) {
+            Toast.makeText(this, "No hikes found matching '" + searchTerm.trim() + "'",
                     Toast.LENGTH_SHORT).show();
         }
+        announceResults = false;
 
         // Update RecyclerView with search results
+        showingSearchResults = true;
+        hikeCount = results.size();
         hikeList = new ArrayList<>(results);
         hikeAdapter.updateList(hikeList);
         updateUI();
@@ -188,7 +312,7 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
     // Update UI based on hike list
 
     private void updateUI() {
-        int count = hikeList.size();
+        int count = hikeCount;
 
         // Update count
         tvHikeCount.setText(count + (count == 1 ? " hike" : " hikes"));
@@ -207,14 +331,14 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
     // Show confirmation dialog before deleting all hikes
 
     private void showDeleteAllConfirmation() {
-        if (hikeList.isEmpty()) {
+        if (hikeCount == 0) {
             Toast.makeText(this, "No hikes to delete", Toast.LENGTH_SHORT).show();
             return;
         }
 
         new AlertDialog.Builder(this)
                 .setTitle("Delete All Hikes")
-                .setMessage("Are you sure you want to delete all " + hikeList.size() +
+                .setMessage("Are you sure you want to delete all " + hikeCount +
                         " hike(s)? This action cannot be undone.")
                 .setIcon(android.R.drawable.ic_dialog_alert)
                 .setPositiveButton("Delete All", (dialog, which) -> deleteAllHikes())
@@ -226,16 +350,25 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
     // Delete all hikes from database
 
     private void deleteAllHikes() {
-        try {
+        DatabaseExecutor.write(this, hikesQuery.ownWrite(() -> {
             dbHelper.deleteAllHikes();
-            hikeList = new ArrayList<>();
-            hikeAdapter.updateList(hikeList);
-            updateUI();
-            Toast.makeText(this, "All hikes deleted successfully", Toast.LENGTH_SHORT).show();
-        } catch (Exception e) {
-            Toast.makeText(this, "Error deleting hikes: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-            e.printStackTrace();
-        }
+            return null;
+        }), new DatabaseExecutor.Callback<Void>() {
+            @Override
+            public void onResult(Void result) {
+                hikeCount = 0;
+                hikeList = new ArrayList<>();
+                hikeAdapter.updateList(hikeList);
+                updateUI();
+                Toast.makeText(MainActivity.this, "All hikes deleted successfully", Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Toast.makeText(MainActivity.this, "Error deleting hikes: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                e.printStackTrace();
+            }
+        });
     }
 
 
@@ -252,49 +385,43 @@ public class MainActivity extends AppCompatActivity implements HikeAdapter.OnHik
     // Handle delete button click from adapter
 
     @Override
-    public void onDeleteClick(Hike hike, int position) {
+    public void onDeleteClick(Hike hike) {
         new AlertDialog.Builder(this)
                 .setTitle("Delete Hike")
                 .setMessage("Are you sure you want to delete \"" + hike.getName() + "\"?")
                 .setIcon(android.R.drawable.ic_dialog_alert)
-                .setPositiveButton("Delete", (dialog, which) -> {
-                    try {
-                        dbHelper.deleteHike(hike.getId());
-                        hikeAdapter.removeItem(position);
-                        updateUI();
-                        Toast.makeText(MainActivity.this,
-                                "Hike deleted successfully", Toast.LENGTH_SHORT).show();
-                    } catch (Exception e) {
-                        Toast.makeText(MainActivity.this,
-                                "Error deleting hike: " + e.getMessage(),
-                                Toast.LENGTH_SHORT).show();
-                        e.printStackTrace();
-                    }
-                })
+                .setPositiveButton("Delete", (dialog, which) ->
+                        DatabaseExecutor.write(this, hikesQuery.ownWrite(() -> {
+                            dbHelper.deleteHike(hike.getId());
+                            return null;
+                        }), new DatabaseExecutor.Callback<Void>() {
+                            @Override
+                            public void onResult(Void result) {
+                                hikeAdapter.removeHike(hike.getId());
+                                hikePager.onHikeRemoved(hike.getId());
+                                hikeCount = Math.max(hikeCount - 1, 0);
+                                updateUI();
+                                Toast.makeText(MainActivity.this,
+                                        "Hike deleted successfully", Toast.LENGTH_SHORT).show();
+                            }
+
+                            @Override
+                            public void onError(Exception e) {
+                                Toast.makeText(MainActivity.this,
+                                        "Error deleting hike: " + e.getMessage(),
+                                        Toast.LENGTH_SHORT).show();
+                                e.printStackTrace();
+                            }
+                        }))
                 .setNegativeButton("Cancel", null)
                 .show();
     }
 
-    // Reload hikes when returning to this activity
-    public void onRestart() {
-        super.onRestart();
-        loadHikes();
-    }
-
-    @Override
-    protected void onResume() {
-        super.onResume();
-        // Reload hikes when returning to this activity
-        loadHikes();
-        // Clear search field
-        etSearch.setText("");
-    }
-
     @Override
     protected void onDestroy() {
         super.onDestroy();
         if (dbHelper != null) {
-            dbHelper.close();
+            dbHelper.release();
         }
     }
 }
\ No newline at end of file
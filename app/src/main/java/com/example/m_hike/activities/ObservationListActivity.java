@@ -15,7 +15,10 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.m_hike.R;
 import com.example.m_hike.adapters.ObservationAdapter;
+import com.example.m_hike.database.DatabaseChangeNotifier;
+import com.example.m_hike.database.DatabaseExecutor;
 import com.example.m_hike.database.DatabaseHelper;
+import com.example.m_hike.database.ObservableQuery;
 import com.example.m_hike.models.Hike;
 import com.example.m_hike.models.Observation;
 import com.google.android.material.appbar.MaterialToolbar;
@@ -38,6 +41,7 @@ public class ObservationListActivity extends AppCompatActivity
     private DatabaseHelper dbHelper;
     private ObservationAdapter observationAdapter;
     private List<Observation> observationList;
+    private ObservableQuery<List<Observation>> observationsQuery;
     private int hikeId;
     private Hike currentHike;
 
@@ -66,7 +70,7 @@ public class ObservationListActivity extends AppCompatActivity
         }
 
         // Initialize database
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
 
         // Initialize views
         initializeViews();
@@ -96,13 +100,15 @@ public class ObservationListActivity extends AppCompatActivity
 
     // Load hike information from database
     private void loadHikeInfo() {
-        currentHike = dbHelper.getHikeById(hikeId);
-        if (currentHike != null) {
-            tvObsListHikeName.setText(currentHike.getName());
-        } else {
-            Toast.makeText(this, "Error: Hike not found", Toast.LENGTH_SHORT).show();
-            finish();
-        }
+        DatabaseExecutor.read(this, () -> dbHelper.getHikeById(hikeId), hike -> {
+            currentHike = hike;
+            if (currentHike != null) {
+                tvObsListHikeName.setText(currentHike.getName());
+            } else {
+                Toast.makeText(this, "Error: Hike not found", Toast.LENGTH_SHORT).show();
+                finish();
+            }
+        });
     }
 
     // Setup RecyclerView with adapter
@@ -127,10 +133,15 @@ public class ObservationListActivity extends AppCompatActivity
 
     // Load observations from database
     private void loadObservations() {
-        observationList.clear();
-        observationList.addAll(dbHelper.getObservationsByHikeId(hikeId));
-        observationAdapter.notifyDataSetChanged();
-        updateUI();
+        // Re-queried on resume only after observations were added, edited or deleted
+        observationsQuery = new ObservableQuery<>(this, () -> dbHelper.getObservationsByHikeId(hikeId),
+                (List<Observation> fresh) -> {
+                    observationList = fresh;
+                    observationAdapter.updateList(observationList);
+                    updateUI();
+                })
+                .dependsOn(DatabaseChangeNotifier.OBSERVATIONS)
+                .observe();
     }
 
     // Update UI based on observation list
@@ -157,38 +168,39 @@ public class ObservationListActivity extends AppCompatActivity
 
     // Edit button click handler
     @Override
-    public void onDeleteClick(Observation observation, int position) {
+    public void onDeleteClick(Observation observation) {
         new AlertDialog.Builder(this)
             .setTitle(R.string.delete_observation_dialog_title)
             .setMessage(R.string.delete_observation_dialog_message)
             .setIcon(android.R.drawable.ic_dialog_alert)
-            .setPositiveButton(R.string.delete, (dialog, which) -> {
-                try {
+            .setPositiveButton(R.string.delete, (dialog, which) ->
+                DatabaseExecutor.write(this, observationsQuery.ownWrite(() -> {
                     dbHelper.deleteObservation(observation.getId());
-                    observationAdapter.removeItem(position);
-                    updateUI();
-                    Toast.makeText(this, R.string.observation_deleted_success, Toast.LENGTH_SHORT).show();
-                } catch (Exception e) {
-                    Log.e("ObservationList", "Delete failed", e);
-                    Toast.makeText(this, "Error deleting observation: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                }
-            })
+                    return null;
+                }), new DatabaseExecutor.Callback<Void>() {
+                    @Override
+                    public void onResult(Void result) {
+                        observationList.removeIf(o -> o.getId() == observation.getId());
+                        observationAdapter.removeObservation(observation.getId());
+                        updateUI();
+                        Toast.makeText(ObservationListActivity.this, R.string.observation_deleted_success, Toast.LENGTH_SHORT).show();
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e("ObservationList", "Delete failed", e);
+                        Toast.makeText(ObservationListActivity.this, "Error deleting observation: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                    }
+                }))
             .setNegativeButton(R.string.cancel, null)
             .show();
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        // Reload observations when returning to this activity
-        loadObservations();
-    }
-
     @Override
     protected void onDestroy() {
         super.onDestroy();
         if (dbHelper != null) {
-            dbHelper.close();
+            dbHelper.release();
         }
     }
 }
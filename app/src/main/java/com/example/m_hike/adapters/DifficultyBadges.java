@@ -0,0 +1,79 @@
+package com.example.m_hike.adapters;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+import androidx.annotation.ColorRes;
+import androidx.core.content.ContextCompat;
+
+import com.example.m_hike.R;
+import com.example.m_hike.models.Difficulty;
+
+/**
+ * Badge colour per difficulty, resolved once from the given context's resources.
+ * Badges keep their shape drawable from the layout. A single badge is
+ * re-tinted; list rows keep one pre-tinted copy per level and switch between
+ * them, since re-tinting allocates a new colour filter whenever the colour
+ * changes. Build a new instance when the configuration changes (adapters and
+ * activities are re-created then anyway).
+ */
+public final class DifficultyBadges {
+
+    // Indexed by Difficulty.ordinal()
+    private final ColorStateList[] tints;
+
+    public DifficultyBadges(Context context) {
+        Difficulty[] levels = Difficulty.values();
+        tints = new ColorStateList[levels.length];
+        for (Difficulty level : levels) {
+            tints[level.ordinal()] = ContextCompat.getColorStateList(context, colorOf(level));
+        }
+    }
+
+    public ColorStateList tintFor(Difficulty difficulty) {
+        return tints[(difficulty != null ? difficulty : Difficulty.UNKNOWN).ordinal()];
+    }
+
+    // Tint the view's badge background for the given level
+    public void apply(View badge, Difficulty difficulty) {
+        badge.setBackgroundTintList(tintFor(difficulty));
+    }
+
+    /**
+     * One copy of the badge's layout background per level, each already tinted.
+     * Call once per row view (a drawable belongs to one view) and pass the
+     * result to {@link #apply(View, Drawable[], Difficulty)} on every bind.
+     */
+    public Drawable[] backgroundsFor(View badge) {
+        Drawable.ConstantState shape = badge.getBackground().getConstantState();
+        Drawable[] backgrounds = new Drawable[tints.length];
+        for (int i = 0; i < tints.length; i++) {
+            backgrounds[i] = shape.newDrawable(badge.getResources()).mutate();
+            backgrounds[i].setTintList(tints[i]);
+        }
+        return backgrounds;
+    }
+
+    // Show the row's pre-tinted background for the given level; allocates nothing
+    public void apply(View badge, Drawable[] backgrounds, Difficulty difficulty) {
+        badge.setBackground(backgrounds[(difficulty != null ? difficulty : Difficulty.UNKNOWN).ordinal()]);
+    }
+
+    @ColorRes
+    private static int colorOf(Difficulty difficulty) {
+        switch (difficulty) {
+            case EASY:
+                return R.color.difficulty_easy;
+            case MODERATE:
+                return R.color.difficulty_moderate;
+            case HARD:
+                return R.color.difficulty_hard;
+            case VERY_HARD:
+                return R.color.difficulty_very_hard;
+            default:
+                return R.color.difficulty_unknown;
+        }
+    }
+}
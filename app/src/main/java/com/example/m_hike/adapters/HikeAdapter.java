@@ -2,133 +2,187 @@ package com.example.m_hike.adapters;
 
 import android.content.Context;
 import android.content.Intent;
-import android.graphics.Color;
-import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.TextView;
 
-import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.m_hike.R;
 import com.example.m_hike.activities.HikeDetailActivity;
+import com.example.m_hike.models.Difficulty;
 import com.example.m_hike.models.Hike;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class HikeAdapter extends RecyclerView.Adapter<HikeAdapter.HikeViewHolder> {
 
     private Context context;
+    // Diffs run on a background thread; only changed rows are notified
+    private final AsyncListDiffer<Hike> differ = new AsyncListDiffer<>(this, HikeDiffCallback.INSTANCE);
+    // Latest submitted list (the differ's current list lags while a diff is running)
     private List<Hike> hikeList;
     private OnHikeActionListener listener;
+    // Badge tints resolved once for this adapter's context
+    private final DifficultyBadges badges;
 
     // Interface for handling actions
     public interface OnHikeActionListener {
         void onEditClick(Hike hike);
-        void onDeleteClick(Hike hike, int position);
+        void onDeleteClick(Hike hike);
     }
 
     public HikeAdapter(Context context, List<Hike> hikeList, OnHikeActionListener listener) {
         this.context = context;
-        this.hikeList = hikeList;
         this.listener = listener;
+        this.badges = new DifficultyBadges(context);
+        setHasStableIds(true);
+        submit(new ArrayList<>(hikeList));
     }
 
     @NonNull
     @Override
     public HikeViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.item_hike, parent, false);
-        return new HikeViewHolder(view);
-    }
-
-    @Override
-    public void onBindViewHolder(@NonNull HikeViewHolder holder, int position) {
-        Hike hike = hikeList.get(position);
-
-        // Set data
-        holder.tvHikeName.setText(hike.getName());
-        holder.tvLocation.setText(hike.getLocation());
-        holder.tvDate.setText(hike.getDate());
-        holder.tvLength.setText(hike.getLength() + " km");
-        holder.tvParking.setText(hike.getParkingAvailable());
-        holder.tvDifficulty.setText(hike.getDifficulty());
-
-        // Set difficulty badge color based on level
-        setDifficultyColor(holder.tvDifficulty, hike.getDifficulty());
+        HikeViewHolder holder = new HikeViewHolder(view);
+        holder.badgeBackgrounds = badges.backgroundsFor(holder.tvDifficulty);
 
+        // Listeners are set once per row and act on whichever hike it is bound to
         // View details button
         holder.btnViewDetails.setOnClickListener(v -> {
             Intent intent = new Intent(context, HikeDetailActivity.class);
-            intent.putExtra("HIKE_ID", hike.getId());
+            intent.putExtra("HIKE_ID", holder.hike.getId());
             context.startActivity(intent);
         });
 
         // Edit button
         holder.btnEdit.setOnClickListener(v -> {
             if (listener != null) {
-                listener.onEditClick(hike);
+                listener.onEditClick(holder.hike);
             }
         });
 
         // Delete button
         holder.btnDelete.setOnClickListener(v -> {
             if (listener != null) {
-                listener.onDeleteClick(hike, holder.getAdapterPosition());
+                listener.onDeleteClick(holder.hike);
             }
         });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull HikeViewHolder holder, int position) {
+        Hike hike = differ.getCurrentList().get(position);
+        holder.hike = hike;
+
+        // Set data
+        holder.tvHikeName.setText(hike.getName());
+        holder.tvLocation.setText(hike.getLocation());
+        holder.tvDate.setText(hike.getDate());
+        holder.tvParking.setText(hike.getParkingAvailable());
+
+        // Length text is only formatted when the recycled row showed a different length
+        if (Double.compare(holder.shownLength, hike.getLength()) != 0) {
+            holder.shownLength = hike.getLength();
+            holder.tvLength.setText(context.getString(R.string.length_km, String.valueOf(hike.getLength())));
+        }
+
+        // Set difficulty badge text and color; skipped when the recycled row shows the same level
+        if (holder.badgeDifficulty != hike.getDifficulty()) {
+            holder.badgeDifficulty = hike.getDifficulty();
+            holder.tvDifficulty.setText(hike.getDifficulty().getLabel());
+            badges.apply(holder.tvDifficulty, holder.badgeBackgrounds, hike.getDifficulty());
+        }
     }
 
     @Override
     public int getItemCount() {
-        return hikeList.size();
+        return differ.getCurrentList().size();
     }
 
-    /**
-     * Set badge color based on difficulty level
-     */
-    private void setDifficultyColor(TextView textView, String difficulty) {
-        GradientDrawable drawable = new GradientDrawable();
-        @ColorInt
-        int color;
-        switch (difficulty.toLowerCase()) {
-            case "easy":
-                color = Color.parseColor("#27AE60"); // Green
-                break;
-            case "moderate":
-                color = Color.parseColor("#F39C12"); // Orange
-                break;
-            case "hard":
-                color = Color.parseColor("#E74C3C"); // Red
-                break;
-            case "very hard":
-                color = Color.parseColor("#8E44AD"); // Purple
-                break;
-            default:
-                color = Color.parseColor("#95A5A6"); // Gray
-        }
-        drawable.setColor(color);
-        textView.setBackground(drawable);
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
+    }
+
+    private void submit(List<Hike> newList) {
+        submit(newList, null);
+    }
+
+    private void submit(List<Hike> newList, Runnable committed) {
+        hikeList = newList;
+        differ.submitList(newList, committed);
     }
 
     /**
      * Update the list of hikes
      */
     public void updateList(List<Hike> newList) {
-        this.hikeList = newList;
-        notifyDataSetChanged();
+        submit(new ArrayList<>(newList));
+    }
+
+    // updateList, then run committed on the main thread once the diff is applied (for tests)
+    void updateList(List<Hike> newList, Runnable committed) {
+        submit(new ArrayList<>(newList), committed);
     }
 
     /**
-     * Remove item at position
+     * Add a page of hikes below the current rows
      */
-    public void removeItem(int position) {
-        hikeList.remove(position);
-        notifyItemRemoved(position);
-        notifyItemRangeChanged(position, hikeList.size());
+    public void appendItems(List<Hike> hikes) {
+        List<Hike> newList = new ArrayList<>(hikeList);
+        newList.addAll(hikes);
+        submit(newList);
+    }
+
+    /**
+     * Add a page of hikes above the current rows
+     */
+    public void prependItems(List<Hike> hikes) {
+        List<Hike> newList = new ArrayList<>(hikes);
+        newList.addAll(hikeList);
+        submit(newList);
+    }
+
+    /**
+     * Drop rows from the top (page evicted from memory)
+     */
+    public void removeFromStart(int count) {
+        count = Math.min(count, hikeList.size());
+        submit(new ArrayList<>(hikeList.subList(count, hikeList.size())));
+    }
+
+    /**
+     * Drop rows from the bottom (page evicted from memory)
+     */
+    public void removeFromEnd(int count) {
+        int size = hikeList.size();
+        count = Math.min(count, size);
+        submit(new ArrayList<>(hikeList.subList(0, size - count)));
+    }
+
+    /**
+     * Remove a hike by id. Positions go stale while a delete runs (pages may be
+     * added or dropped), so the row is found again in the list the next diff
+     * builds on rather than trusted from the click.
+     */
+    public void removeHike(int hikeId) {
+        List<Hike> newList = new ArrayList<>(hikeList.size());
+        for (Hike hike : hikeList) {
+            if (hike.getId() != hikeId) {
+                newList.add(hike);
+            }
+        }
+        if (newList.size() != hikeList.size()) {
+            submit(newList);
+        }
     }
 
     /**
@@ -137,6 +191,14 @@ public class HikeAdapter extends RecyclerView.Adapter<HikeAdapter.HikeViewHolder
     static class HikeViewHolder extends RecyclerView.ViewHolder {
         TextView tvHikeName, tvLocation, tvDate, tvLength, tvParking, tvDifficulty;
         Button btnViewDetails, btnEdit, btnDelete;
+        // Hike currently bound to this row (read by the click listeners)
+        Hike hike;
+        // Length the text currently shows, NaN until first bound
+        double shownLength = Double.NaN;
+        // Level the badge currently shows, null until first bound
+        Difficulty badgeDifficulty;
+        // This row's badge background per level, from DifficultyBadges.backgroundsFor
+        Drawable[] badgeBackgrounds;
 
         public HikeViewHolder(@NonNull View itemView) {
             super(itemView);
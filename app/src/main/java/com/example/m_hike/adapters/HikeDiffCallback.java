@@ -0,0 +1,32 @@
+package com.example.m_hike.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.m_hike.models.Hike;
+
+import java.util.Objects;
+
+// Hikes are the same item when their ids match; contents compare every displayed field
+class HikeDiffCallback extends DiffUtil.ItemCallback<Hike> {
+
+    static final HikeDiffCallback INSTANCE = new HikeDiffCallback();
+
+    @Override
+    public boolean areItemsTheSame(@NonNull Hike oldItem, @NonNull Hike newItem) {
+        return oldItem.getId() == newItem.getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Hike oldItem, @NonNull Hike newItem) {
+        return Objects.equals(oldItem.getName(), newItem.getName())
+                && Objects.equals(oldItem.getLocation(), newItem.getLocation())
+                && Objects.equals(oldItem.getDate(), newItem.getDate())
+                && Objects.equals(oldItem.getParkingAvailable(), newItem.getParkingAvailable())
+                && Double.compare(oldItem.getLength(), newItem.getLength()) == 0
+                && oldItem.getDifficulty() == newItem.getDifficulty()
+                && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                && Objects.equals(oldItem.getEstimatedDuration(), newItem.getEstimatedDuration())
+                && oldItem.getMaxGroupSize() == newItem.getMaxGroupSize();
+    }
+}
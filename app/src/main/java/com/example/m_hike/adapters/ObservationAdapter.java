@@ -9,42 +9,66 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.m_hike.R;
 import com.example.m_hike.models.Observation;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class ObservationAdapter extends RecyclerView.Adapter<ObservationAdapter.ObservationViewHolder> {
 
     private Context context;
+    // Diffs run on a background thread; only changed rows are notified
+    private final AsyncListDiffer<Observation> differ =
+            new AsyncListDiffer<>(this, ObservationDiffCallback.INSTANCE);
+    // Latest submitted list (the differ's current list lags while a diff is running)
     private List<Observation> observationList;
     private OnObservationActionListener listener;
 
     // Interface for handling actions
     public interface OnObservationActionListener {
         void onEditClick(Observation observation);
-        void onDeleteClick(Observation observation, int position);
+        void onDeleteClick(Observation observation);
     }
 
     public ObservationAdapter(Context context, List<Observation> observationList,
                               OnObservationActionListener listener) {
         this.context = context;
-        this.observationList = observationList;
         this.listener = listener;
+        setHasStableIds(true);
+        submit(new ArrayList<>(observationList));
     }
 
     @NonNull
     @Override
     public ObservationViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.item_observation, parent, false);
-        return new ObservationViewHolder(view);
+        ObservationViewHolder holder = new ObservationViewHolder(view);
+
+        // Listeners are set once per row and act on whichever observation it is bound to
+        // Edit button click listener
+        holder.btnEditObs.setOnClickListener(v -> {
+            if (listener != null) {
+                listener.onEditClick(holder.observation);
+            }
+        });
+
+        // Delete button click listener
+        holder.btnDeleteObs.setOnClickListener(v -> {
+            if (listener != null) {
+                listener.onDeleteClick(holder.observation);
+            }
+        });
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull ObservationViewHolder holder, int position) {
-        Observation observation = observationList.get(position);
+        Observation observation = differ.getCurrentList().get(position);
+        holder.observation = observation;
 
         // Set data
         holder.tvObsTime.setText(observation.getTime());
@@ -58,42 +82,53 @@ public class ObservationAdapter extends RecyclerView.Adapter<ObservationAdapter.
         } else {
             holder.layoutComment.setVisibility(View.GONE);
         }
-
-        // Edit button click listener
-        holder.btnEditObs.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onEditClick(observation);
-            }
-        });
-
-        // Delete button click listener
-        holder.btnDeleteObs.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onDeleteClick(observation, holder.getAdapterPosition());
-            }
-        });
     }
 
     @Override
     public int getItemCount() {
-        return observationList.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
+    }
+
+    private void submit(List<Observation> newList) {
+        submit(newList, null);
+    }
+
+    private void submit(List<Observation> newList, Runnable committed) {
+        observationList = newList;
+        differ.submitList(newList, committed);
     }
 
      // Update the entire list of observations
 
     public void updateList(List<Observation> newList) {
-        this.observationList = newList;
-        notifyDataSetChanged();
+        submit(new ArrayList<>(newList));
     }
 
+    // updateList, then run committed on the main thread once the diff is applied (for tests)
+    void updateList(List<Observation> newList, Runnable committed) {
+        submit(new ArrayList<>(newList), committed);
+    }
 
-    // Remove item at specific position
 
-    public void removeItem(int position) {
-        if (position >= 0 && position < observationList.size()) {
-            observationList.remove(position);
-            notifyItemRemoved(position);
-            notifyItemRangeChanged(position, observationList.size());
+    /**
+     * Remove an observation by id. The clicked position may be stale by the time
+     * the delete completes (a reload can land in between), so the row is found
+     * again in the list the next diff builds on.
+     */
+    public void removeObservation(int observationId) {
+        List<Observation> newList = new ArrayList<>(observationList.size());
+        for (Observation observation : observationList) {
+            if (observation.getId() != observationId) {
+                newList.add(observation);
+            }
+        }
+        if (newList.size() != observationList.size()) {
+            submit(newList);
         }
     }
 
@@ -104,6 +139,8 @@ public class ObservationAdapter extends RecyclerView.Adapter<ObservationAdapter.
         TextView tvObsTime, tvObsObservation, tvObsComment;
         LinearLayout layoutComment;
         Button btnEditObs, btnDeleteObs;
+        // Observation currently bound to this row (read by the click listeners)
+        Observation observation;
 
         public ObservationViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -0,0 +1,27 @@
+package com.example.m_hike.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.m_hike.models.Observation;
+
+import java.util.Objects;
+
+// Observations are the same item when their ids match
+class ObservationDiffCallback extends DiffUtil.ItemCallback<Observation> {
+
+    static final ObservationDiffCallback INSTANCE = new ObservationDiffCallback();
+
+    @Override
+    public boolean areItemsTheSame(@NonNull Observation oldItem, @NonNull Observation newItem) {
+        return oldItem.getId() == newItem.getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Observation oldItem, @NonNull Observation newItem) {
+        return oldItem.getHikeId() == newItem.getHikeId()
+                && Objects.equals(oldItem.getObservation(), newItem.getObservation())
+                && Objects.equals(oldItem.getTime(), newItem.getTime())
+                && Objects.equals(oldItem.getComment(), newItem.getComment());
+    }
+}
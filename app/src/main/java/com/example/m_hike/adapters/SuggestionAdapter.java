@@ -0,0 +1,62 @@
+package com.example.m_hike.adapters;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Drop-down completions for an AutoCompleteTextView.
+ * Lookups run on the filter's background thread, so the source may read the database.
+ */
+public class SuggestionAdapter extends ArrayAdapter<String> {
+
+    private static final int MAX_SUGGESTIONS = 8;
+
+    // e.g. dbHelper::suggestLocations
+    public interface Source {
+        List<String> suggest(String prefix, int limit);
+    }
+
+    private final Source source;
+
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            List<String> matches = constraint == null || constraint.length() == 0
+                    ? Collections.emptyList()
+                    : source.suggest(constraint.toString(), MAX_SUGGESTIONS);
+            FilterResults results = new FilterResults();
+            results.values = matches;
+            results.count = matches.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            setNotifyOnChange(false);
+            clear();
+            if (results.values != null) {
+                addAll((List<String>) results.values);
+            }
+            notifyDataSetChanged();
+        }
+    };
+
+    public SuggestionAdapter(Context context, Source source) {
+        super(context, android.R.layout.simple_dropdown_item_1line, new ArrayList<>());
+        this.source = source;
+    }
+
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+}
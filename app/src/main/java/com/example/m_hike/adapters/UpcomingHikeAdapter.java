@@ -8,23 +8,26 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.m_hike.R;
 import com.example.m_hike.activities.HikeDetailActivity;
 import com.example.m_hike.models.Hike;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
 public class UpcomingHikeAdapter extends RecyclerView.Adapter<UpcomingHikeAdapter.ViewHolder> {
 
     private Context context;
-    private List<Hike> hikeList;
+    private final AsyncListDiffer<Hike> differ = new AsyncListDiffer<>(this, HikeDiffCallback.INSTANCE);
 
     public UpcomingHikeAdapter(Context context, List<Hike> hikeList) {
         this.context = context;
-        this.hikeList = hikeList;
+        setHasStableIds(true);
+        differ.submitList(new ArrayList<>(hikeList));
     }
 
     @NonNull
@@ -36,7 +39,7 @@ public class UpcomingHikeAdapter extends RecyclerView.Adapter<UpcomingHikeAdapte
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Hike hike = hikeList.get(position);
+        Hike hike = differ.getCurrentList().get(position);
         holder.tvHikeName.setText(hike.getName());
         holder.tvHikeDate.setText(hike.getDate());
         holder.tvHikeLocation.setText(hike.getLocation());
@@ -51,12 +54,21 @@ public class UpcomingHikeAdapter extends RecyclerView.Adapter<UpcomingHikeAdapte
 
     @Override
     public int getItemCount() {
-        return hikeList.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
     }
 
     public void updateList(List<Hike> newHikeList) {
-        this.hikeList = newHikeList;
-        notifyDataSetChanged();
+        differ.submitList(new ArrayList<>(newHikeList));
+    }
+
+    // updateList, then run committed on the main thread once the diff is applied (for tests)
+    void updateList(List<Hike> newHikeList, Runnable committed) {
+        differ.submitList(new ArrayList<>(newHikeList), committed);
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,83 @@
+package com.example.m_hike.database;
+
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.Observation;
+
+/**
+ * Compiled INSERTs reused for every row of a batch, shared by the bulk writes
+ * in DatabaseHelper and by HikeImporter so both bind and index rows the same
+ * way. Statements are compiled on first use. The caller owns the transaction
+ * and must close() the inserter when the batch is done.
+ */
+final class BatchInserter implements AutoCloseable {
+
+    private final SQLiteDatabase db;
+    private SQLiteStatement insertHike;
+    private SQLiteStatement insertTrigram;
+    private SQLiteStatement insertObservation;
+
+    BatchInserter(SQLiteDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * Insert a hike together with its trigram rows. If the grams can't be
+     * written the hike row is deleted again, so it is never left unindexed.
+     * @return the new hike id
+     * @throws SQLException if the hike was not inserted
+     */
+    long insertHike(Hike hike) {
+        if (insertHike == null) {
+            insertHike = db.compileStatement(DatabaseHelper.SQL_INSERT_HIKE);
+            insertTrigram = db.compileStatement(HikeTrigramIndex.SQL_INSERT);
+        }
+        insertHike.clearBindings();
+        DatabaseHelper.bindHike(insertHike, hike);
+        long id = insertHike.executeInsert();
+        if (id == -1) {
+            throw new SQLException("Hike was not inserted");
+        }
+        try {
+            HikeTrigramIndex.index(insertTrigram, id, hike.getName(), hike.getLocation());
+        } catch (SQLException e) {
+            // Its grams written so far go with it (cascade)
+            db.delete(DatabaseHelper.TABLE_HIKES, DatabaseHelper.KEY_HIKE_ID + " = ?",
+                    new String[]{String.valueOf(id)});
+            throw e;
+        }
+        return id;
+    }
+
+    /**
+     * Insert an observation of observation.getHikeId().
+     * @return the new observation id
+     * @throws SQLException if the row was not inserted (e.g. the hike doesn't exist)
+     */
+    long insertObservation(Observation observation) {
+        if (insertObservation == null) {
+            insertObservation = db.compileStatement(DatabaseHelper.SQL_INSERT_OBSERVATION);
+        }
+        insertObservation.clearBindings();
+        DatabaseHelper.bindObservation(insertObservation, observation);
+        long id = insertObservation.executeInsert();
+        if (id == -1) {
+            throw new SQLException("Observation was not inserted");
+        }
+        return id;
+    }
+
+    @Override
+    public void close() {
+        if (insertHike != null) {
+            insertHike.close();
+            insertTrigram.close();
+        }
+        if (insertObservation != null) {
+            insertObservation.close();
+        }
+    }
+}
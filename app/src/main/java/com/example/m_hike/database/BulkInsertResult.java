@@ -0,0 +1,45 @@
+package com.example.m_hike.database;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk insert: the generated id of every input row, in input order,
+ * plus the error for each row that could not be inserted.
+ */
+public class BulkInsertResult {
+    private final long[] ids;
+    private final Map<Integer, Exception> failures = new LinkedHashMap<>();
+
+    BulkInsertResult(int rowCount) {
+        ids = new long[rowCount];
+    }
+
+    void setId(int row, long id) {
+        ids[row] = id;
+    }
+
+    void addFailure(int row, Exception e) {
+        ids[row] = -1;
+        failures.put(row, e);
+    }
+
+    // Generated ids by input position; -1 for rows that failed
+    public long[] getIds() {
+        return ids;
+    }
+
+    // Input position -> error, for rows that were not inserted
+    public Map<Integer, Exception> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    public int getInsertedCount() {
+        return ids.length - failures.size();
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.m_hike.database;
+
+import android.database.Cursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps cursor rows to model objects.
+ * Column indices are resolved once per cursor (not once per row) and passed
+ * to {@link #mapRow(Cursor, int[])}; mappers hold no state so one instance can
+ * be shared between threads.
+ */
+public abstract class CursorMapper<T> {
+
+    // Columns to select, in the order mapRow expects their indices
+    private final String[] projection;
+
+    protected CursorMapper(String... projection) {
+        this.projection = projection;
+    }
+
+    // Explicit column list for db.query(...)
+    public String[] getProjection() {
+        return projection.clone();
+    }
+
+    // Explicit column list for raw "SELECT ... FROM" statements
+    public String getSelectColumns() {
+        return String.join(", ", projection);
+    }
+
+    // Same list with every column taken from the given table/alias (for joins)
+    public String getSelectColumns(String qualifier) {
+        StringBuilder columns = new StringBuilder();
+        for (String column : projection) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            columns.append(qualifier).append('.').append(column).append(" AS ").append(column);
+        }
+        return columns.toString();
+    }
+
+    // Build one object from the current row using pre-resolved column indices
+    protected abstract T mapRow(Cursor cursor, int[] columns);
+
+    // Resolve every projection column against this cursor
+    public int[] resolveColumns(Cursor cursor) {
+        int[] columns = new int[projection.length];
+        for (int i = 0; i < projection.length; i++) {
+            columns[i] = cursor.getColumnIndexOrThrow(projection[i]);
+        }
+        return columns;
+    }
+
+    // Map every row, then close the cursor
+    public List<T> mapAll(Cursor cursor) {
+        List<T> list = new ArrayList<>(Math.max(cursor.getCount(), 0));
+        try {
+            if (cursor.moveToFirst()) {
+                int[] columns = resolveColumns(cursor);
+                do {
+                    list.add(mapRow(cursor, columns));
+                } while (cursor.moveToNext());
+            }
+        } finally {
+            cursor.close();
+        }
+        return list;
+    }
+
+    // Map the first row (or null if there is none), then close the cursor
+    public T mapFirst(Cursor cursor) {
+        try {
+            return cursor.moveToFirst() ? mapRow(cursor, resolveColumns(cursor)) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.m_hike.database;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publishes table- and row-level invalidation events after DatabaseHelper writes.
+ * Events are delivered on the main thread, in the order the writes happened.
+ * A write run through {@link #runAs} carries that origin token in its events.
+ */
+public final class DatabaseChangeNotifier {
+
+    public static final String HIKES = DatabaseHelper.TABLE_HIKES;
+    public static final String OBSERVATIONS = DatabaseHelper.TABLE_OBSERVATIONS;
+
+    // Row id used when a write touched an unknown set of rows in the table
+    public static final long ALL_ROWS = -1;
+
+    // Receives invalidation events on the main thread
+    public interface Listener {
+        // origin is the token the write ran under (see runAs), null for any other write
+        void onTableChanged(String table, long rowId, Object origin);
+    }
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+    // Origin of the write running on each thread
+    private static final ThreadLocal<Object> ORIGIN = new ThreadLocal<>();
+
+    private DatabaseChangeNotifier() {
+    }
+
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Run write on this thread with its events tagged with origin
+    public static <T> T runAs(Object origin, Callable<T> write) throws Exception {
+        Object outer = ORIGIN.get();
+        ORIGIN.set(origin);
+        try {
+            return write.call();
+        } finally {
+            ORIGIN.set(outer);
+        }
+    }
+
+    // Called by DatabaseHelper once a write has been applied (may be any thread)
+    static void notifyChanged(String table, long rowId) {
+        Object origin = ORIGIN.get();
+        MAIN.post(() -> {
+            for (Listener listener : listeners) {
+                listener.onTableChanged(table, rowId, origin);
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.m_hike.database;
+
+/**
+ * Connection settings applied by DatabaseHelper.onConfigure every time the
+ * database is opened. Defaults favour concurrent reads (WAL) and fewer fsyncs.
+ * The journal mode and SQL cache size go through the framework and reach every
+ * connection. The pragmas (synchronous, cache size, temp store, WAL
+ * checkpointing) only reach the primary connection, which does all the writes.
+ * Reader connections in the WAL pool keep SQLite's defaults for them.
+ */
+public class DatabaseConfig {
+
+    public enum JournalMode { WAL, TRUNCATE, DELETE }
+
+    // NORMAL is durable against app crashes; a power loss may roll back the last commits
+    public enum Synchronous { OFF, NORMAL, FULL }
+
+    public enum TempStore { DEFAULT, FILE, MEMORY }
+
+    private JournalMode journalMode = JournalMode.WAL;
+    private Synchronous synchronous = Synchronous.NORMAL;
+    private int cacheSizeKb = 2048;
+    private TempStore tempStore = TempStore.MEMORY;
+    // WAL is folded back into the database file once it grows past this many pages
+    private int walAutoCheckpointPages = 1000;
+    // Prepared statements kept per connection; each HikeQuery shape holds one
+    private int sqlCacheSize = 50;
+
+    public JournalMode getJournalMode() {
+        return journalMode;
+    }
+
+    public DatabaseConfig setJournalMode(JournalMode journalMode) {
+        this.journalMode = journalMode;
+        return this;
+    }
+
+    public Synchronous getSynchronous() {
+        return synchronous;
+    }
+
+    public DatabaseConfig setSynchronous(Synchronous synchronous) {
+        this.synchronous = synchronous;
+        return this;
+    }
+
+    public int getCacheSizeKb() {
+        return cacheSizeKb;
+    }
+
+    public DatabaseConfig setCacheSizeKb(int cacheSizeKb) {
+        this.cacheSizeKb = cacheSizeKb;
+        return this;
+    }
+
+    public TempStore getTempStore() {
+        return tempStore;
+    }
+
+    public DatabaseConfig setTempStore(TempStore tempStore) {
+        this.tempStore = tempStore;
+        return this;
+    }
+
+    public int getWalAutoCheckpointPages() {
+        return walAutoCheckpointPages;
+    }
+
+    public DatabaseConfig setWalAutoCheckpointPages(int walAutoCheckpointPages) {
+        this.walAutoCheckpointPages = walAutoCheckpointPages;
+        return this;
+    }
+
+    public int getSqlCacheSize() {
+        return sqlCacheSize;
+    }
+
+    // Capped at SQLiteDatabase.MAX_SQL_CACHE_SIZE (100)
+    public DatabaseConfig setSqlCacheSize(int sqlCacheSize) {
+        this.sqlCacheSize = sqlCacheSize;
+        return this;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.m_hike.database;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs DatabaseHelper calls off the main thread.
+ * Reads share a small fixed pool, writes go through a single writer thread so
+ * they are applied in submission order. Results are posted back to the main
+ * looper and dropped if the owning Activity/Fragment has been destroyed.
+ * Both queues are bounded: a task submitted to a full queue is rejected and
+ * its callback gets onError(RejectedExecutionException) instead of the
+ * backlog growing without limit.
+ */
+public final class DatabaseExecutor {
+
+    private static final String TAG = "DatabaseExecutor";
+    private static final int READER_THREADS = 2;
+    // Queued reads beyond this mean screens ask faster than the disk answers
+    static final int READ_QUEUE_CAPACITY = 64;
+    // Generous: a full write queue means the writer is stuck, and rejected writes are lost
+    static final int WRITE_QUEUE_CAPACITY = 256;
+
+    private static final ExecutorService READERS = bounded(READER_THREADS, READ_QUEUE_CAPACITY, "mhike-db-reader");
+    private static final ExecutorService WRITER = bounded(1, WRITE_QUEUE_CAPACITY, "mhike-db-writer");
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+    // Tasks submitted and not yet finished (DatabaseHelper.shutdown waits for zero)
+    private static final AtomicInteger PENDING = new AtomicInteger();
+
+    // Result callback, always invoked on the main thread
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(Exception e) {
+            Log.e(TAG, "Database task failed", e);
+        }
+    }
+
+    private DatabaseExecutor() {
+    }
+
+    // Run a query on the reader pool; cancelled if the owner is destroyed first
+    public static <T> Future<?> read(@NonNull LifecycleOwner owner, @NonNull Callable<T> task,
+                                     Callback<T> callback) {
+        return submit(READERS, owner, task, callback, true);
+    }
+
+    // Run an insert/update/delete on the writer thread.
+    // Writes always complete; only the callback is dropped after destroy.
+    public static <T> Future<?> write(@NonNull LifecycleOwner owner, @NonNull Callable<T> task,
+                                      Callback<T> callback) {
+        return submit(WRITER, owner, task, callback, false);
+    }
+
+    // Fire-and-forget maintenance work on the writer thread (no screen to report to)
+    public static void execute(@NonNull Runnable task) {
+        PENDING.incrementAndGet();
+        try {
+            WRITER.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Background database task failed", e);
+                } finally {
+                    PENDING.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            PENDING.decrementAndGet();
+            Log.w(TAG, "Writer queue full, background task dropped", e);
+        }
+    }
+
+    // No task is queued or running, so nothing will touch the database until the next submit
+    static boolean isIdle() {
+        return PENDING.get() == 0;
+    }
+
+    private static <T> Future<?> submit(ExecutorService executor, LifecycleOwner owner,
+                                        Callable<T> task, Callback<T> callback,
+                                        boolean cancelTask) {
+        Lifecycle lifecycle = owner.getLifecycle();
+        CancelOnDestroy guard = new CancelOnDestroy(lifecycle, cancelTask);
+
+        Runnable run = () -> {
+            T result;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                MAIN.post(() -> {
+                    if (!guard.cancelled && callback != null) {
+                        callback.onError(e);
+                    }
+                });
+                return;
+            }
+            MAIN.post(() -> {
+                if (!guard.cancelled && callback != null) {
+                    callback.onResult(result);
+                }
+            });
+        };
+        // done() also runs for a task cancelled before it started, which never posts a result
+        FutureTask<Void> future = new FutureTask<Void>(run, null) {
+            @Override
+            protected void done() {
+                MAIN.post(guard::detach);
+            }
+
+            // The pool runs every queued task, cancelled or not, so this settles each one exactly once
+            @Override
+            public void run() {
+                try {
+                    super.run();
+                } finally {
+                    PENDING.decrementAndGet();
+                }
+            }
+        };
+        PENDING.incrementAndGet();
+        guard.attach(future);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            // Never queued: settle it here (done() still detaches the guard) and report it
+            PENDING.decrementAndGet();
+            future.cancel(false);
+            MAIN.post(() -> {
+                if (!guard.cancelled && callback != null) {
+                    callback.onError(e);
+                }
+            });
+        }
+        return future;
+    }
+
+    // Cancels the task and suppresses its callback when the owner is destroyed
+    private static final class CancelOnDestroy implements DefaultLifecycleObserver {
+        private final Lifecycle lifecycle;
+        private final boolean cancelTask;
+        private volatile boolean cancelled;
+        private Future<?> future;
+
+        CancelOnDestroy(Lifecycle lifecycle, boolean cancelTask) {
+            this.lifecycle = lifecycle;
+            this.cancelTask = cancelTask;
+        }
+
+        void attach(Future<?> future) {
+            this.future = future;
+            if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+                cancel();
+            } else {
+                lifecycle.addObserver(this);
+            }
+        }
+
+        // Main thread only (Lifecycle observers are not thread-safe)
+        void detach() {
+            lifecycle.removeObserver(this);
+        }
+
+        private void cancel() {
+            cancelled = true;
+            if (cancelTask && future != null) {
+                future.cancel(true);
+            }
+        }
+
+        @Override
+        public void onDestroy(@NonNull LifecycleOwner owner) {
+            cancel();
+            detach();
+        }
+    }
+
+    // Fixed-size pool over a bounded FIFO queue; a full queue throws RejectedExecutionException
+    private static ExecutorService bounded(int threads, int queueCapacity, String name) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads(name), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+    }
+}
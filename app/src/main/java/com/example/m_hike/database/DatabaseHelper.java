@@ -3,45 +3,199 @@ package com.example.m_hike.database;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+import android.os.CancellationSignal;
 
+import com.example.m_hike.models.Difficulty;
 import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.HikeStatistics;
 import com.example.m_hike.models.Observation;
 
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
 
 public class DatabaseHelper extends SQLiteOpenHelper {
     // Database info
     private static final String DATABASE_NAME = "MHikeDB";
-    private static final int DATABASE_VERSION = 2; // bumped for cascade FK
+    private static final int DATABASE_VERSION = 13; // 2: cascade FK, 3: epoch-day date column, 4: lookup indexes, 5: FTS, 6: import progress, 7: stats table, 8: difficulty code, 9: trigrams, 10: sort indexes, 11: FTS row per observation, 12: drop name/location indexes, 13: import fingerprint
 
     // Table names
-    private static final String TABLE_HIKES = "Hikes";
-    private static final String TABLE_OBSERVATIONS = "Observations";
+    static final String TABLE_HIKES = "Hikes";
+    static final String TABLE_OBSERVATIONS = "Observations";
 
     // Hikes Table Columns
-    private static final String KEY_HIKE_ID = "id";
-    private static final String KEY_NAME = "name";
-    private static final String KEY_LOCATION = "location";
-    private static final String KEY_DATE = "date";
-    private static final String KEY_PARKING = "parking_available";
-    private static final String KEY_LENGTH = "length";
-    private static final String KEY_DIFFICULTY = "difficulty";
-    private static final String KEY_DESCRIPTION = "description";
-    private static final String KEY_DURATION = "estimated_duration";
-    private static final String KEY_GROUP_SIZE = "max_group_size";
+    static final String KEY_HIKE_ID = "id";
+    static final String KEY_NAME = "name";
+    static final String KEY_LOCATION = "location";
+    static final String KEY_DATE = "date";
+    static final String KEY_PARKING = "parking_available";
+    static final String KEY_LENGTH = "length";
+    // Difficulty.getCode(); 0 (UNKNOWN) for anything else
+    static final String KEY_DIFFICULTY = "difficulty_code";
+    static final String KEY_DESCRIPTION = "description";
+    static final String KEY_DURATION = "estimated_duration";
+    static final String KEY_GROUP_SIZE = "max_group_size";
+    // Sortable copy of KEY_DATE (days since 1970-01-01), NULL if the text can't be parsed
+    static final String KEY_DATE_EPOCH = "date_epoch_day";
+    // Free-text difficulty of databases created before version 8; kept but no longer read or written
+    private static final String KEY_DIFFICULTY_LEGACY = "difficulty";
+
+    // Indexes
+    private static final String INDEX_HIKES_DATE = "idx_hikes_date_epoch";
+    // Dropped in version 12
+    private static final String INDEX_HIKES_NAME = "idx_hikes_name";
+    private static final String INDEX_HIKES_LOCATION = "idx_hikes_location";
+    private static final String INDEX_HIKES_DIFFICULTY = "idx_hikes_difficulty";
+    private static final String INDEX_HIKES_SORT_NAME = "idx_hikes_sort_name";
+    private static final String INDEX_HIKES_SORT_LENGTH = "idx_hikes_sort_length";
+    private static final String INDEX_OBS_HIKE_TIME = "idx_observations_hike_time";
+
+    // Chronological, newest first; id breaks ties so the order is stable
+    private static final String ORDER_BY_DATE_DESC = KEY_DATE_EPOCH + " DESC, " + KEY_HIKE_ID + " DESC";
+    // Trigram candidates ranked by edit distance in fuzzySearchHikes
+    private static final int FUZZY_CANDIDATES = 200;
+    // Hike ids inlined per IN (...) list when loading search results
+    private static final int ID_CHUNK_SIZE = 500;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
 
     // Observations Table Columns
-    private static final String KEY_OBS_ID = "id";
-    private static final String KEY_HIKE_FK = "hike_id";
-    private static final String KEY_OBSERVATION = "observation";
-    private static final String KEY_TIME = "time";
-    private static final String KEY_COMMENT = "comment";
+    static final String KEY_OBS_ID = "id";
+    static final String KEY_HIKE_FK = "hike_id";
+    static final String KEY_OBSERVATION = "observation";
+    static final String KEY_TIME = "time";
+    static final String KEY_COMMENT = "comment";
+
+    // Process-wide instance: one SQLite connection shared by every screen
+    private static DatabaseHelper instance;
+    private int refCount;
+    // Pragmas applied in onConfigure
+    private static DatabaseConfig config = new DatabaseConfig();
+
+    // Recently loaded hikes by id (detail, edit and observation screens share them)
+    private final HikeCache hikeCache = new HikeCache(HikeCache.DEFAULT_MAX_SIZE);
+    // Compiled statements for the hot single-row writes below
+    private final StatementCache statements = new StatementCache();
+    // In-memory name/location autocomplete, built on first use
+    private final HikeSuggestions suggestions = new HikeSuggestions();
 
-    public DatabaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    // Column order shared by SQL_INSERT_HIKE and SQL_UPDATE_HIKE (see bindHike)
+    private static final String HIKE_WRITE_COLUMNS = KEY_NAME + ", " + KEY_LOCATION + ", " + KEY_DATE + ", " +
+            KEY_DATE_EPOCH + ", " + KEY_PARKING + ", " + KEY_LENGTH + ", " + KEY_DIFFICULTY + ", " +
+            KEY_DESCRIPTION + ", " + KEY_DURATION + ", " + KEY_GROUP_SIZE;
+    static final String SQL_INSERT_HIKE = "INSERT INTO " + TABLE_HIKES + " (" + HIKE_WRITE_COLUMNS +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE_HIKE = "UPDATE " + TABLE_HIKES + " SET " +
+            HIKE_WRITE_COLUMNS.replace(",", " = ?,") + " = ? WHERE " + KEY_HIKE_ID + " = ?";
+    private static final String SQL_DELETE_HIKE = "DELETE FROM " + TABLE_HIKES + " WHERE " + KEY_HIKE_ID + " = ?";
+    static final String SQL_UPDATE_OBSERVATION = "UPDATE " + TABLE_OBSERVATIONS + " SET " +
+            KEY_OBSERVATION + " = ?, " + KEY_TIME + " = ?, " + KEY_COMMENT + " = ? WHERE " + KEY_OBS_ID + " = ?";
+    static final String SQL_INSERT_OBSERVATION = "INSERT INTO " + TABLE_OBSERVATIONS + " (" +
+            KEY_HIKE_FK + ", " + KEY_OBSERVATION + ", " + KEY_TIME + ", " + KEY_COMMENT + ") VALUES (?, ?, ?, ?)";
+    private static final String SQL_DELETE_OBSERVATION = "DELETE FROM " + TABLE_OBSERVATIONS +
+            " WHERE " + KEY_OBS_ID + " = ?";
+    // Full-text hits with their matchinfo: hike rows by hike id, observation rows by their hike's id
+    static final String SQL_SEARCH_HIKE_ROWS = "SELECT docid, matchinfo(" + HikeSearchIndex.TABLE + ", 'pcx') FROM " +
+            HikeSearchIndex.TABLE + " WHERE " + HikeSearchIndex.TABLE + " MATCH ?";
+    static final String SQL_SEARCH_OBSERVATION_ROWS = "SELECT o." + KEY_HIKE_FK + ", matchinfo(" +
+            HikeSearchIndex.TABLE_OBSERVATIONS + ", 'pcx'), " +
+            HikeSearchIndex.TABLE_OBSERVATIONS + "." + HikeSearchIndex.COL_OBSERVATION + ", " +
+            HikeSearchIndex.TABLE_OBSERVATIONS + "." + HikeSearchIndex.COL_COMMENT +
+            " FROM " + HikeSearchIndex.TABLE_OBSERVATIONS + " JOIN " + TABLE_OBSERVATIONS + " o ON o." + KEY_OBS_ID +
+            " = " + HikeSearchIndex.TABLE_OBSERVATIONS + ".docid WHERE " + HikeSearchIndex.TABLE_OBSERVATIONS + " MATCH ?";
+
+    private DatabaseHelper(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+    }
+
+    /**
+     * A helper on its own database file, outside the shared instance, for tests
+     * and benchmarks. The caller closes it; getInstance/release don't apply.
+     */
+    static DatabaseHelper openStandalone(Context context, String name) {
+        return new DatabaseHelper(context.getApplicationContext(), name);
+    }
+
+    /**
+     * Acquire the shared helper. Every call must be balanced by {@link #release()}
+     * (usually in onDestroy / onDestroyView).
+     */
+    public static synchronized DatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            // Application context so the helper never leaks an Activity
+            instance = new DatabaseHelper(context.getApplicationContext(), DATABASE_NAME);
+        }
+        instance.refCount++;
+        return instance;
+    }
+
+    /**
+     * Release a reference taken with {@link #getInstance(Context)}.
+     * The connection stays open while the process lives so the next screen, and
+     * writes still queued after the last screen is gone, don't reopen the file;
+     * only {@link #shutdown()} closes it.
+     */
+    public void release() {
+        synchronized (DatabaseHelper.class) {
+            if (refCount > 0) {
+                refCount--;
+            }
+        }
+    }
+
+    /**
+     * Replace the connection settings. Takes effect the next time the database
+     * is opened, so call it before the first getInstance (e.g. in Application.onCreate).
+     */
+    public static synchronized void setConfig(DatabaseConfig newConfig) {
+        config = newConfig;
+    }
+
+    /**
+     * Checkpoint policy: SQLite folds the WAL back automatically once it reaches
+     * wal_autocheckpoint pages; when the app goes to the background we also
+     * truncate it so the -wal file doesn't keep its peak size on disk.
+     * Runs on the writer thread.
+     */
+    public static synchronized void checkpointInBackground() {
+        DatabaseHelper helper = instance;
+        if (helper == null || config.getJournalMode() != DatabaseConfig.JournalMode.WAL) {
+            return;
+        }
+        // shutdown() won't close the connection while this is queued
+        DatabaseExecutor.execute(() -> pragma(helper.getWritableDatabase(), "wal_checkpoint(TRUNCATE)"));
+    }
+
+    @Override
+    public synchronized void close() {
+        statements.clear();
+        super.close();
+    }
+
+    /**
+     * Shutdown hook: closes the shared connection once nobody holds a reference
+     * and no database task is queued or running (one would reopen it).
+     * @return true if the connection was closed
+     */
+    public static synchronized boolean shutdown() {
+        if (instance == null || instance.refCount > 0 || !DatabaseExecutor.isIdle()) {
+            return false;
+        }
+        instance.close();
+        instance = null;
+        return true;
     }
 
     @Override
@@ -53,12 +207,16 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 KEY_DATE + " TEXT," +
                 KEY_PARKING + " TEXT," +
                 KEY_LENGTH + " REAL," +
-                KEY_DIFFICULTY + " TEXT," +
+                KEY_DIFFICULTY + " INTEGER NOT NULL DEFAULT 0," +
                 KEY_DESCRIPTION + " TEXT," +
                 KEY_DURATION + " TEXT," +
-                KEY_GROUP_SIZE + " INTEGER" +
+                KEY_GROUP_SIZE + " INTEGER," +
+                KEY_DATE_EPOCH + " INTEGER" +
                 ")";
         db.execSQL(CREATE_HIKES_TABLE);
+        createDateIndex(db);
+        createDifficultyIndex(db);
+        createSortIndexes(db);
 
         // Observations with ON DELETE CASCADE
         String CREATE_OBSERVATIONS_TABLE = "CREATE TABLE " + TABLE_OBSERVATIONS + "(" +
@@ -70,6 +228,11 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 "FOREIGN KEY(" + KEY_HIKE_FK + ") REFERENCES " + TABLE_HIKES + "(" + KEY_HIKE_ID + ") ON DELETE CASCADE" +
                 ")";
         db.execSQL(CREATE_OBSERVATIONS_TABLE);
+        createLookupIndexes(db);
+        HikeSearchIndex.create(db);
+        HikeImporter.createProgressTable(db);
+        HikeStatsTable.create(db);
+        HikeTrigramIndex.create(db);
     }
 
     @Override
@@ -99,12 +262,198 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 db.endTransaction();
             }
         }
+
+        // Add epoch-day column so ordering/upcoming filters don't parse dd/MM/yyyy text
+        if (oldVersion < 3) {
+            db.beginTransaction();
+            try {
+                db.execSQL("ALTER TABLE " + TABLE_HIKES + " ADD COLUMN " + KEY_DATE_EPOCH + " INTEGER");
+                // Backfill from the dd/MM/yyyy strings written by the date picker
+                db.execSQL("UPDATE " + TABLE_HIKES + " SET " + KEY_DATE_EPOCH + " = CAST(julianday(" +
+                        "substr(" + KEY_DATE + ",7,4) || '-' || substr(" + KEY_DATE + ",4,2) || '-' || substr(" + KEY_DATE + ",1,2)" +
+                        ") - 2440587.5 AS INTEGER)" +
+                        " WHERE " + KEY_DATE + " GLOB '[0-9][0-9]/[0-9][0-9]/[0-9][0-9][0-9][0-9]'");
+                createDateIndex(db);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+
+        // Secondary indexes: observations per hike and cascade deletes
+        if (oldVersion < 4) {
+            createLookupIndexes(db);
+        }
+
+        // 5 added the full-text index; it is (re)built in its current layout below
+        if (oldVersion < 6) {
+            HikeImporter.createProgressTable(db);
+        }
+        // 7 added the stats table; its triggers read the difficulty column, so it is (re)built below
+
+        // Free-text difficulty -> integer code; anything that isn't a spinner label becomes UNKNOWN
+        if (oldVersion < 8) {
+            db.beginTransaction();
+            try {
+                db.execSQL("ALTER TABLE " + TABLE_HIKES + " ADD COLUMN " + KEY_DIFFICULTY +
+                        " INTEGER NOT NULL DEFAULT " + Difficulty.UNKNOWN.getCode());
+                db.execSQL("UPDATE " + TABLE_HIKES + " SET " + KEY_DIFFICULTY + " = " +
+                        difficultyCodeOf(KEY_DIFFICULTY_LEGACY));
+                createDifficultyIndex(db);
+                HikeStatsTable.drop(db);
+                HikeStatsTable.create(db);
+                HikeStatsTable.rebuild(db);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+
+        // Trigram index for fuzzy name/location search
+        if (oldVersion < 9) {
+            db.beginTransaction();
+            try {
+                HikeTrigramIndex.create(db);
+                HikeTrigramIndex.rebuild(db);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+
+        // Indexes for the name and length list orders
+        if (oldVersion < 10) {
+            createSortIndexes(db);
+        }
+
+        // Full-text index with one row per observation instead of one per hike
+        if (oldVersion < 11) {
+            db.beginTransaction();
+            try {
+                HikeSearchIndex.drop(db);
+                HikeSearchIndex.create(db);
+                HikeSearchIndex.rebuild(db);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+
+        // Name/location filters are LIKE '%x%' (never seeks) and name sorting has its NOCASE index
+        if (oldVersion < 12) {
+            db.execSQL("DROP INDEX IF EXISTS " + INDEX_HIKES_NAME);
+            db.execSQL("DROP INDEX IF EXISTS " + INDEX_HIKES_LOCATION);
+        }
+
+        // Resume positions now carry the file's fingerprint; older ones can't be checked, so they go
+        if (oldVersion < 13) {
+            HikeImporter.dropProgressTable(db);
+            HikeImporter.createProgressTable(db);
+        }
+    }
+
+    // CASE expression mapping a free-text difficulty column to its Difficulty code
+    private static String difficultyCodeOf(String column) {
+        StringBuilder sql = new StringBuilder("CASE LOWER(TRIM(" + column + "))");
+        for (Difficulty difficulty : Difficulty.selectable()) {
+            sql.append(" WHEN '").append(difficulty.getLabel().toLowerCase(Locale.ROOT))
+                    .append("' THEN ").append(difficulty.getCode());
+        }
+        return sql.append(" ELSE ").append(Difficulty.UNKNOWN.getCode()).append(" END").toString();
+    }
+
+    private void createDateIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_HIKES_DATE + " ON " + TABLE_HIKES +
+                "(" + KEY_DATE_EPOCH + ", " + KEY_HIKE_ID + ")");
+    }
+
+    // Difficulty filter, with the list order as trailing columns so matches come out presorted
+    private void createDifficultyIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_HIKES_DIFFICULTY + " ON " + TABLE_HIKES +
+                "(" + KEY_DIFFICULTY + ", " + KEY_DATE_EPOCH + ", " + KEY_HIKE_ID + ")");
+    }
+
+    /**
+     * One index per sort column in HikeSort's ORDER BY form (date uses the date index),
+     * so every list order is an index walk, forwards or backwards, with no sort step.
+     */
+    private void createSortIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_HIKES_SORT_NAME + " ON " + TABLE_HIKES +
+                "(" + HikeSort.NAME_ASC.getSortExpression() + ", " + KEY_HIKE_ID + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_HIKES_SORT_LENGTH + " ON " + TABLE_HIKES +
+                "(" + HikeSort.LENGTH_ASC.getSortExpression() + ", " + KEY_HIKE_ID + ")");
+    }
+
+    private void createLookupIndexes(SQLiteDatabase db) {
+        // Serves "WHERE hike_id=? ORDER BY time DESC" and the FK lookup on parent delete
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_OBS_HIKE_TIME + " ON " + TABLE_OBSERVATIONS +
+                "(" + KEY_HIKE_FK + ", " + KEY_TIME + ")");
+    }
+
+    /**
+     * Convert a dd/MM/yyyy date into days since 1970-01-01.
+     * @return epoch day, or null if the text is not a valid date
+     */
+    public static Long toEpochDay(String date) {
+        if (date == null) {
+            return null;
+        }
+        String[] parts = date.trim().split("/");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            calendar.clear();
+            calendar.setLenient(false);
+            calendar.set(Integer.parseInt(parts[2]), Integer.parseInt(parts[1]) - 1, Integer.parseInt(parts[0]));
+            return Math.floorDiv(calendar.getTimeInMillis(), MILLIS_PER_DAY);
+        } catch (IllegalArgumentException e) { // NumberFormatException or invalid day/month
+            return null;
+        }
+    }
+
+    // Today's local date as an epoch day
+    public static long todayEpochDay() {
+        Calendar now = Calendar.getInstance();
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        utc.clear();
+        utc.set(now.get(Calendar.YEAR), now.get(Calendar.MONTH), now.get(Calendar.DAY_OF_MONTH));
+        return Math.floorDiv(utc.getTimeInMillis(), MILLIS_PER_DAY);
     }
 
     @Override
     public void onConfigure(SQLiteDatabase db) {
         super.onConfigure(db);
         db.setForeignKeyConstraintsEnabled(true);
+
+        DatabaseConfig settings = config;
+        // WAL lets the reader threads run while the writer thread commits
+        if (settings.getJournalMode() == DatabaseConfig.JournalMode.WAL) {
+            db.enableWriteAheadLogging();
+            pragma(db, "wal_autocheckpoint = " + settings.getWalAutoCheckpointPages());
+        } else {
+            db.disableWriteAheadLogging();
+            pragma(db, "journal_mode = " + settings.getJournalMode().name());
+        }
+        // After the journal mode: enabling WAL resets the connection's sync mode
+        pragma(db, "synchronous = " + settings.getSynchronous().name());
+        // onConfigure only sees the primary connection, so the pragmas below reach the
+        // writer but not the WAL reader pool, which keeps SQLite's defaults.
+        // Negative cache_size is in KiB rather than pages
+        pragma(db, "cache_size = -" + settings.getCacheSizeKb());
+        pragma(db, "temp_store = " + settings.getTempStore().name());
+        db.setMaxSqlCacheSize(Math.min(settings.getSqlCacheSize(), SQLiteDatabase.MAX_SQL_CACHE_SIZE));
+    }
+
+    // Some pragmas return a row, which execSQL rejects, so run them as a query
+    private static void pragma(SQLiteDatabase db, String pragma) {
+        Cursor cursor = db.rawQuery("PRAGMA " + pragma, null);
+        try {
+            cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
     }
 
     // CRUD operations for Hikes and Observations
@@ -115,108 +464,438 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         values.put(KEY_NAME, hike.getName());
         values.put(KEY_LOCATION, hike.getLocation());
         values.put(KEY_DATE, hike.getDate());
+        values.put(KEY_DATE_EPOCH, toEpochDay(hike.getDate()));
         values.put(KEY_PARKING, hike.getParkingAvailable());
         values.put(KEY_LENGTH, hike.getLength());
-        values.put(KEY_DIFFICULTY, hike.getDifficulty());
+        values.put(KEY_DIFFICULTY, difficultyCode(hike));
         values.put(KEY_DESCRIPTION, hike.getDescription());
         values.put(KEY_DURATION, hike.getEstimatedDuration());
         values.put(KEY_GROUP_SIZE, hike.getMaxGroupSize());
 
-        long id = db.insert(TABLE_HIKES, null, values);
-        db.close();
+        long id = -1;
+        suggestions.beginWrite();
+        db.beginTransaction();
+        try {
+            id = db.insert(TABLE_HIKES, null, values);
+            if (id != -1) {
+                HikeTrigramIndex.index(db, id, hike.getName(), hike.getLocation());
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            boolean added = id != -1;
+            suggestions.endWrite(null, null,
+                    added ? hike.getName() : null, added ? hike.getLocation() : null);
+        }
+        if (id != -1) {
+            DatabaseChangeNotifier.notifyChanged(TABLE_HIKES, id);
+        }
         return id;
     }
 
-    // Get all hikes
-    public List<Hike> getAllHikes() {
-        List<Hike> hikeList = new ArrayList<>();
-        String selectQuery = "SELECT * FROM " + TABLE_HIKES + " ORDER BY " + KEY_DATE + " DESC";
+    /**
+     * Insert many hikes in one transaction, reusing one compiled INSERT statement.
+     * A row that fails (e.g. a constraint violation) is reported and skipped;
+     * the remaining rows are still committed.
+     */
+    public BulkInsertResult addHikes(Collection<Hike> hikes) {
+        BulkInsertResult result = new BulkInsertResult(hikes.size());
+        SQLiteDatabase db = this.getWritableDatabase();
+        suggestions.beginWrite();
+        try (BatchInserter inserter = new BatchInserter(db)) {
+            db.beginTransaction();
+            try {
+                int row = 0;
+                for (Hike hike : hikes) {
+                    try {
+                        result.setId(row, inserter.insertHike(hike));
+                    } catch (SQLException e) {
+                        result.addFailure(row, e);
+                    }
+                    row++;
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } finally {
+            suggestions.endWrite(null, null, null, null);
+        }
+        if (result.getInsertedCount() > 0) {
+            // Too many rows to apply one by one; rebuilt on the next lookup
+            suggestions.invalidate();
+            DatabaseChangeNotifier.notifyChanged(TABLE_HIKES, DatabaseChangeNotifier.ALL_ROWS);
+        }
+        return result;
+    }
 
+    /**
+     * Insert many observations in one transaction, reusing one compiled INSERT statement.
+     * Rows referencing a missing hike fail the foreign key check and are reported.
+     */
+    public BulkInsertResult addObservations(Collection<Observation> observations) {
+        BulkInsertResult result = new BulkInsertResult(observations.size());
+        SQLiteDatabase db = this.getWritableDatabase();
+        try (BatchInserter inserter = new BatchInserter(db)) {
+            db.beginTransaction();
+            try {
+                int row = 0;
+                for (Observation observation : observations) {
+                    try {
+                        result.setId(row, inserter.insertObservation(observation));
+                    } catch (SQLException e) {
+                        result.addFailure(row, e);
+                    }
+                    row++;
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+        if (result.getInsertedCount() > 0) {
+            DatabaseChangeNotifier.notifyChanged(TABLE_OBSERVATIONS, DatabaseChangeNotifier.ALL_ROWS);
+        }
+        return result;
+    }
+
+    // Bind the HIKE_WRITE_COLUMNS of a hike to parameters 1-10
+    static void bindHike(SQLiteStatement statement, Hike hike) {
+        bindText(statement, 1, hike.getName());
+        bindText(statement, 2, hike.getLocation());
+        bindText(statement, 3, hike.getDate());
+        Long epochDay = toEpochDay(hike.getDate());
+        if (epochDay != null) {
+            statement.bindLong(4, epochDay);
+        } else {
+            statement.bindNull(4);
+        }
+        bindText(statement, 5, hike.getParkingAvailable());
+        statement.bindDouble(6, hike.getLength());
+        statement.bindLong(7, difficultyCode(hike));
+        bindText(statement, 8, hike.getDescription());
+        bindText(statement, 9, hike.getEstimatedDuration());
+        statement.bindLong(10, hike.getMaxGroupSize());
+    }
+
+    private static int difficultyCode(Hike hike) {
+        Difficulty difficulty = hike.getDifficulty();
+        return difficulty != null ? difficulty.getCode() : Difficulty.UNKNOWN.getCode();
+    }
+
+    // Bind an observation to the parameters of SQL_INSERT_OBSERVATION
+    static void bindObservation(SQLiteStatement statement, Observation observation) {
+        statement.bindLong(1, observation.getHikeId());
+        bindText(statement, 2, observation.getObservation());
+        bindText(statement, 3, observation.getTime());
+        bindText(statement, 4, observation.getComment());
+    }
+
+    // Bind a nullable string (bindString rejects null)
+    private static void bindText(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+
+    // Total number of hikes (for the list header when rows are paged)
+    public int getHikeCount() {
+        // A read: runs on a reader connection, outside the write statement cache
+        return (int) DatabaseUtils.queryNumEntries(this.getReadableDatabase(), TABLE_HIKES);
+    }
+
+    /**
+     * Load the page that follows a key in list order.
+     * @param sort - list order; keys are only valid for the sort they were loaded with
+     * @param after - last key of the previous page, or null for the first page
+     * @param limit - page size
+     */
+    public HikePage getHikesPageAfter(HikeSort sort, HikePage.Key after, int limit) {
+        return queryHikes(new HikeQuery().setSort(sort).setAfter(after).setLimit(limit));
+    }
+
+    /**
+     * Load the page that precedes a key in list order (used when scrolling back up
+     * after earlier pages were dropped from memory).
+     * @param sort - list order of the page below
+     * @param before - first key of the page below
+     * @param limit - page size
+     */
+    public HikePage getHikesPageBefore(HikeSort sort, HikePage.Key before, int limit) {
+        return queryHikes(new HikeQuery().setSort(sort).setBefore(before).setLimit(limit));
+    }
+
+    /**
+     * Run a filtered, sorted and optionally paged hike query.
+     * @return the matching hikes in the query's sort order, with the keys of the
+     * first and last row for loading the neighbouring pages
+     */
+    public HikePage queryHikes(HikeQuery query) {
+        HikeQueryCompiler.Compiled compiled = HikeQueryCompiler.compile(query);
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(selectQuery, null);
-
-        if (cursor.moveToFirst()) {
-            do {
-                Hike hike = new Hike(
-                        cursor.getInt(cursor.getColumnIndexOrThrow(KEY_HIKE_ID)),       // id
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_NAME)),        // name
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_LOCATION)),    // location
-                        cursor.getInt(cursor.getColumnIndexOrThrow(KEY_GROUP_SIZE)),     // maxGroupSize
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DURATION)),    // estimatedDuration
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DESCRIPTION)), // description
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DIFFICULTY)),  // difficulty
-                        cursor.getDouble(cursor.getColumnIndexOrThrow(KEY_LENGTH)),      // length
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_PARKING)),     // parkingAvailable
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DATE))
-                );
-                hikeList.add(hike);
-            } while (cursor.moveToNext());
-        }
-
-        cursor.close();
-        db.close();
-        return hikeList;
-    }
-
-    // Get a single hike by ID
-    public Hike getHikeById(int id) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.query(TABLE_HIKES, null, KEY_HIKE_ID + "=?",
-                new String[]{String.valueOf(id)}, null, null, null);
-
-        Hike hike = null;
-        if (cursor.moveToFirst()) {
-            hike = new Hike(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(KEY_HIKE_ID)),       // id
-                    cursor.getString(cursor.getColumnIndexOrThrow(KEY_NAME)),        // name
-                    cursor.getString(cursor.getColumnIndexOrThrow(KEY_LOCATION)),    // location
-                    cursor.getInt(cursor.getColumnIndexOrThrow(KEY_GROUP_SIZE)),     // maxGroupSize
-                    cursor.getString(cursor.getColumnIndexOrThrow(KEY_DURATION)),    // estimatedDuration
-                    cursor.getString(cursor.getColumnIndexOrThrow(KEY_DESCRIPTION)), // description
-                    cursor.getString(cursor.getColumnIndexOrThrow(KEY_DIFFICULTY)),  // difficulty
-                    cursor.getDouble(cursor.getColumnIndexOrThrow(KEY_LENGTH)),      // length
-                    cursor.getString(cursor.getColumnIndexOrThrow(KEY_PARKING)),     // parkingAvailable
-                    cursor.getString(cursor.getColumnIndexOrThrow(KEY_DATE))
-            );
+
+        int expected = query.getLimit() > 0 ? query.getLimit() : 16;
+        List<Hike> hikes = new ArrayList<>(expected);
+        List<HikePage.Key> keys = new ArrayList<>(expected);
+        Cursor cursor = db.rawQuery(compiled.sql, compiled.args);
+        try {
+            if (cursor.moveToFirst()) {
+                int[] columns = HikeMapper.INSTANCE.resolveColumns(cursor);
+                int keyColumn = cursor.getColumnIndexOrThrow(HikeQueryCompiler.COL_SORT_KEY);
+                do {
+                    Hike hike = HikeMapper.INSTANCE.mapRow(cursor, columns);
+                    hikes.add(hike);
+                    keys.add(new HikePage.Key(sortValue(cursor, keyColumn), hike.getId()));
+                } while (cursor.moveToNext());
+            }
+        } finally {
             cursor.close();
         }
 
-        db.close();
+        if (compiled.reversed) {
+            Collections.reverse(hikes);
+            Collections.reverse(keys);
+        }
+        if (hikes.isEmpty()) {
+            return new HikePage(hikes, null, null);
+        }
+        return new HikePage(hikes, keys.get(0), keys.get(keys.size() - 1));
+    }
+
+    // Sort column value as SQLite stored it, so it binds back with the same meaning
+    private static Object sortValue(Cursor cursor, int column) {
+        switch (cursor.getType(column)) {
+            case Cursor.FIELD_TYPE_NULL:
+                return null;
+            case Cursor.FIELD_TYPE_INTEGER:
+                return cursor.getLong(column);
+            case Cursor.FIELD_TYPE_FLOAT:
+                return cursor.getDouble(column);
+            default:
+                return cursor.getString(column);
+        }
+    }
+
+    // Get a single hike by ID (served from the hike cache when possible)
+    public Hike getHikeById(int id) {
+        Hike cached = hikeCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        int readToken = hikeCache.beginRead();
+        Hike hike = loadById(TABLE_HIKES, HikeMapper.INSTANCE, KEY_HIKE_ID, id, null, 0);
+        hikeCache.putIfUnchanged(hike, readToken);
         return hike;
     }
 
+    // Maximum number of hikes kept by the getHikeById cache
+    public void setHikeCacheSize(int maxSize) {
+        hikeCache.resize(maxSize);
+    }
+
+    public int getHikeCacheHitCount() {
+        return hikeCache.hitCount();
+    }
+
+    public int getHikeCacheMissCount() {
+        return hikeCache.missCount();
+    }
+
+    // e.g. "hike cache 12/64, hits=40, misses=12" for logging
+    public String getHikeCacheStats() {
+        return "hike cache " + hikeCache.size() + "/" + hikeCache.maxSize() +
+                ", hits=" + hikeCache.hitCount() + ", misses=" + hikeCache.missCount();
+    }
+
+    // Name and location of a stored hike (for the suggestion index), null if it doesn't exist
+    private String[] loadNameAndLocation(int id) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE_HIKES, new String[]{KEY_NAME, KEY_LOCATION},
+                KEY_HIKE_ID + " = ?", new String[]{String.valueOf(id)}, null, null, null)) {
+            return cursor.moveToFirst() ? new String[]{cursor.getString(0), cursor.getString(1)} : null;
+        }
+    }
+
+    /**
+     * Hike names starting with the prefix (case-insensitive), most used first.
+     * The first call reads every hike to build the in-memory index, so call
+     * off the main thread; later calls take microseconds.
+     */
+    public List<String> suggestHikeNames(String prefix, int limit) {
+        return suggestions.completeName(getReadableDatabase(), prefix, limit);
+    }
+
+    // Build the suggestion index ahead of the first keystroke (off the main thread)
+    public void warmUpSuggestions() {
+        suggestions.ensureBuilt(getReadableDatabase());
+    }
+
+    // Locations starting with the prefix, most used first (see suggestHikeNames)
+    public List<String> suggestLocations(String prefix, int limit) {
+        return suggestions.completeLocation(getReadableDatabase(), prefix, limit);
+    }
+
+    // Bulk writes outside this class (imports): rebuild the suggestions on next use
+    void invalidateSuggestions() {
+        suggestions.invalidate();
+    }
+
+    // Hikes dated strictly after the given epoch day, soonest first (index range scan)
+    public List<Hike> getUpcomingHikes(long afterEpochDay) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.query(TABLE_HIKES, HikeMapper.INSTANCE.getProjection(), KEY_DATE_EPOCH + " > ?",
+                new String[]{String.valueOf(afterEpochDay)}, null, null,
+                KEY_DATE_EPOCH + " ASC, " + KEY_HIKE_ID + " ASC");
+        return HikeMapper.INSTANCE.mapAll(cursor);
+    }
+
+    /**
+     * Statistics for the Profile screen: one read of the trigger-maintained
+     * summary row plus the upcoming hikes range scan, in one read transaction
+     * so the totals and the list come from the same snapshot.
+     * @param todayEpochDay - hikes after this day are returned as upcoming
+     */
+    public HikeStatistics getHikeStatistics(long todayEpochDay) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        int totalHikes = 0, totalObs = 0;
+        double totalDistance = 0;
+        int easy = 0, moderate = 0, hard = 0, veryHard = 0;
+
+        beginReadTransaction(db);
+        try {
+            Cursor cursor = db.query(HikeStatsTable.TABLE, HikeStatsTable.COLUMNS, "id = 1",
+                    null, null, null, null);
+            try {
+                if (cursor.moveToFirst()) {
+                    totalHikes = cursor.getInt(0);
+                    totalObs = cursor.getInt(1);
+                    totalDistance = cursor.getDouble(2);
+                    easy = cursor.getInt(3);
+                    moderate = cursor.getInt(4);
+                    hard = cursor.getInt(5);
+                    veryHard = cursor.getInt(6);
+                }
+            } finally {
+                cursor.close();
+            }
+
+            return new HikeStatistics(totalHikes, totalObs, totalDistance,
+                    easy, moderate, hard, veryHard, getUpcomingHikes(todayEpochDay));
+        } finally {
+            // Nothing was changed; ending without setTransactionSuccessful just releases the snapshot
+            db.endTransaction();
+        }
+    }
+
+    // True when beginReadTransaction has to take the write lock (before API 35)
+    public static boolean readTransactionsBlockWriters() {
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.VANILLA_ICE_CREAM;
+    }
+
+    // Under WAL a read-only transaction is a snapshot that doesn't block the writer;
+    // before API 35 the only option is an immediate transaction
+    static void beginReadTransaction(SQLiteDatabase db) {
+        if (!readTransactionsBlockWriters()) {
+            db.beginTransactionReadOnly();
+        } else {
+            db.beginTransactionNonExclusive();
+        }
+    }
+
+    /**
+     * Consistency check for the statistics summary row: recompute it from the
+     * live tables and, if anything differs, rebuild it.
+     * @return the differences that were found (empty if it was consistent)
+     */
+    public List<String> verifyStatistics() {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            List<String> differences = HikeStatsTable.diff(db);
+            if (!differences.isEmpty()) {
+                HikeStatsTable.rebuild(db);
+            }
+            db.setTransactionSuccessful();
+            return differences;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
     // Update a hike
     public int updateHike(Hike hike) {
         SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put(KEY_NAME, hike.getName());
-        values.put(KEY_LOCATION, hike.getLocation());
-        values.put(KEY_DATE, hike.getDate());
-        values.put(KEY_PARKING, hike.getParkingAvailable());
-        values.put(KEY_LENGTH, hike.getLength());
-        values.put(KEY_DIFFICULTY, hike.getDifficulty());
-        values.put(KEY_DESCRIPTION, hike.getDescription());
-        values.put(KEY_DURATION, hike.getEstimatedDuration());
-        values.put(KEY_GROUP_SIZE, hike.getMaxGroupSize());
-
-        int rowsAffected = db.update(TABLE_HIKES, values, KEY_HIKE_ID + "=?", new String[]{String.valueOf(hike.getId())});
-        db.close();
+        int rowsAffected = 0;
+        String[] old = null;
+        suggestions.beginWrite();
+        // Everything after beginWrite is inside the try so endWrite always balances it
+        try {
+            old = suggestions.isBuilt() ? loadNameAndLocation(hike.getId()) : null;
+            db.beginTransaction();
+            try {
+                rowsAffected = statements.executeUpdateDelete(db, SQL_UPDATE_HIKE, statement -> {
+                    bindHike(statement, hike);
+                    statement.bindLong(11, hike.getId());
+                });
+                if (rowsAffected > 0) {
+                    HikeTrigramIndex.reindex(db, hike.getId(), hike.getName(), hike.getLocation());
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } finally {
+            boolean updated = rowsAffected > 0 && old != null;
+            suggestions.endWrite(updated ? old[0] : null, updated ? old[1] : null,
+                    updated ? hike.getName() : null, updated ? hike.getLocation() : null);
+        }
+        if (rowsAffected > 0) {
+            hikeCache.put(hike);
+            DatabaseChangeNotifier.notifyChanged(TABLE_HIKES, hike.getId());
+        } else {
+            hikeCache.remove(hike.getId());
+        }
         return rowsAffected;
     }
 
-    // Delete a hike (child observations removed first to satisfy FK)
+    // Delete a hike; ON DELETE CASCADE removes its observations
     public void deleteHike(int id) {
         SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(TABLE_HIKES, KEY_HIKE_ID + "=?", new String[]{String.valueOf(id)});
-        db.close();
+        int deleted = 0;
+        String[] old = null;
+        suggestions.beginWrite();
+        try {
+            old = suggestions.isBuilt() ? loadNameAndLocation(id) : null;
+            deleted = statements.executeUpdateDelete(db, SQL_DELETE_HIKE, statement -> statement.bindLong(1, id));
+        } finally {
+            boolean removed = deleted > 0 && old != null;
+            suggestions.endWrite(removed ? old[0] : null, removed ? old[1] : null, null, null);
+        }
+        // Cache is updated after the write so a concurrent read can't re-cache the old row
+        hikeCache.remove(id);
+        if (deleted > 0) {
+            DatabaseChangeNotifier.notifyChanged(TABLE_HIKES, id);
+            // Its observations went with it (cascade)
+            DatabaseChangeNotifier.notifyChanged(TABLE_OBSERVATIONS, DatabaseChangeNotifier.ALL_ROWS);
+        }
     }
 
     // Unified bulk clear method (formerly deleteAllHikes & clearAllData)
     public void deleteAllHikes() {
         SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(TABLE_HIKES, null, null); // Observations auto-deleted via cascade
-        db.close();
+        // Bracketed like a row write so a suggestions build overlapping it waits and retries
+        suggestions.beginWrite();
+        try {
+            db.delete(TABLE_HIKES, null, null); // Observations auto-deleted via cascade
+        } finally {
+            suggestions.endWrite(null, null, null, null);
+        }
+        // After the write so a concurrent read can't re-cache a deleted row
+        hikeCache.clear();
+        suggestions.clear();
+        DatabaseChangeNotifier.notifyChanged(TABLE_HIKES, DatabaseChangeNotifier.ALL_ROWS);
+        DatabaseChangeNotifier.notifyChanged(TABLE_OBSERVATIONS, DatabaseChangeNotifier.ALL_ROWS);
     }
 
     // Add observation
@@ -231,34 +910,19 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         values.put(KEY_COMMENT, observation.getComment());
 
         long id = db.insert(TABLE_OBSERVATIONS, null, values);
-        db.close();
+        if (id != -1) {
+            DatabaseChangeNotifier.notifyChanged(TABLE_OBSERVATIONS, id);
+        }
         return  id;
     }
 
     // Get all observations for a hike
     public List<Observation> getObservationsForHike(int hikeId) {
-        List<Observation> obsList = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
 
-        Cursor cursor = db.query(TABLE_OBSERVATIONS, null, KEY_HIKE_FK + "=?",
+        Cursor cursor = db.query(TABLE_OBSERVATIONS, ObservationMapper.INSTANCE.getProjection(), KEY_HIKE_FK + "=?",
                 new String[]{String.valueOf(hikeId)}, null, null, KEY_TIME + " DESC");
-
-        if (cursor.moveToFirst()) {
-            do {
-                Observation obs = new Observation(
-                        cursor.getInt(cursor.getColumnIndexOrThrow(KEY_OBS_ID)),
-                        cursor.getInt(cursor.getColumnIndexOrThrow(KEY_HIKE_FK)),
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_OBSERVATION)),
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_TIME)),
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_COMMENT))
-                );
-                obsList.add(obs);
-            } while (cursor.moveToNext());
-        }
-
-        cursor.close();
-        db.close();
-        return obsList;
+        return ObservationMapper.INSTANCE.mapAll(cursor);
     }
 
     // Convenience alias to match call sites
@@ -268,142 +932,197 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     // Get single observation by id
     public Observation getObservationById(int id) {
+        return loadById(TABLE_OBSERVATIONS, ObservationMapper.INSTANCE, KEY_OBS_ID, id, null, 0);
+    }
+
+    // Get single observation by id, or null if it doesn't belong to the given hike
+    public Observation getObservationById(int id, int hikeId) {
+        return loadById(TABLE_OBSERVATIONS, ObservationMapper.INSTANCE, KEY_OBS_ID, id, KEY_HIKE_FK, hikeId);
+    }
+
+    /**
+     * Load one row by primary key (a single index lookup, whatever the table size).
+     * @param parentColumn optional foreign key column; when set the row must also
+     *                     reference parentId, otherwise null is returned
+     */
+    private <T> T loadById(String table, CursorMapper<T> mapper, String idColumn, long id,
+                           String parentColumn, long parentId) {
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.query(TABLE_OBSERVATIONS, null, KEY_OBS_ID + "=?",
-                new String[]{String.valueOf(id)}, null, null, null);
-
-        Observation obs = null;
-        if (cursor != null && cursor.moveToFirst()) {
-            obs = new Observation(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(KEY_OBS_ID)),
-                    cursor.getInt(cursor.getColumnIndexOrThrow(KEY_HIKE_FK)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(KEY_OBSERVATION)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(KEY_TIME)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(KEY_COMMENT))
-            );
-            cursor.close();
+        String where = idColumn + "=?";
+        String[] args;
+        if (parentColumn != null) {
+            where += " AND " + parentColumn + "=?";
+            args = new String[]{String.valueOf(id), String.valueOf(parentId)};
+        } else {
+            args = new String[]{String.valueOf(id)};
         }
-        db.close();
-        return obs;
+        Cursor cursor = db.query(table, mapper.getProjection(), where, args, null, null, null);
+        return mapper.mapFirst(cursor);
     }
 
     // Update observation
     public int updateObservation(Observation observation) {
         SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put(KEY_OBSERVATION, observation.getObservation());
-        values.put(KEY_TIME, observation.getTime());
-        values.put(KEY_COMMENT, observation.getComment());
-
-        int rowsAffected = db.update(TABLE_OBSERVATIONS, values,
-                KEY_OBS_ID + "=?", new String[]{String.valueOf(observation.getId())});
-        db.close();
+        int rowsAffected = statements.executeUpdateDelete(db, SQL_UPDATE_OBSERVATION, statement -> {
+            bindText(statement, 1, observation.getObservation());
+            bindText(statement, 2, observation.getTime());
+            bindText(statement, 3, observation.getComment());
+            statement.bindLong(4, observation.getId());
+        });
+        if (rowsAffected > 0) {
+            DatabaseChangeNotifier.notifyChanged(TABLE_OBSERVATIONS, observation.getId());
+        }
         return rowsAffected;
     }
 
     // Delete observation
     public void deleteObservation(int id) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(TABLE_OBSERVATIONS, KEY_OBS_ID + "=?", new String[]{String.valueOf(id)});
-        db.close();
+        if (statements.executeUpdateDelete(this.getWritableDatabase(), SQL_DELETE_OBSERVATION,
+                statement -> statement.bindLong(1, id)) > 0) {
+            DatabaseChangeNotifier.notifyChanged(TABLE_OBSERVATIONS, id);
+        }
+    }
+
+    /**
+     * Full-text search over name, location, description and observation/comment text.
+     * Each word is matched as a prefix; results are ranked by relevance
+     * (name hits first), then by date.
+     * @param text - free text typed by the user
+     * @return ranked hikes, empty if the text has no searchable words
+     */
+    public List<Hike> searchHikes(String text) {
+        List<HikeSearchIndex.Hit> hits = searchIndex(text, null);
+        List<Hike> hikes = new ArrayList<>(hits.size());
+        for (HikeSearchIndex.Hit hit : hits) {
+            hikes.add(hit.hike);
+        }
+        return hikes;
     }
 
-    // Search hikes by name
-    public List<Hike> searchHikesByName(String searchTerm) {
-        List<Hike> hikeList = new ArrayList<>();
+    /**
+     * Ranked full-text hits for {@link #searchHikes(String)}.
+     * @param signal - cancels the running query (it then throws OperationCanceledException), may be null
+     */
+    List<HikeSearchIndex.Hit> searchIndex(String text, CancellationSignal signal) {
+        String[] terms = HikeSearchIndex.toTerms(text);
+        String match = HikeSearchIndex.toMatchAnyQuery(terms);
+        if (match == null) {
+            return new ArrayList<>();
+        }
         SQLiteDatabase db = this.getReadableDatabase();
+        // Hike id -> what it matched; one entry per hike with a hit on any term
+        Map<Long, HikeSearchIndex.Match> matches = new HashMap<>();
 
-        String selectQuery = "SELECT * FROM " + TABLE_HIKES +
-                " WHERE " + KEY_NAME + " LIKE ? ORDER BY " + KEY_DATE + " DESC";
+        try (Cursor cursor = db.rawQuery(SQL_SEARCH_HIKE_ROWS, new String[]{match}, signal)) {
+            while (cursor.moveToNext()) {
+                matchOf(matches, cursor.getLong(0), terms.length).addHikeRow(cursor.getBlob(1));
+            }
+        }
 
-        Cursor cursor = db.rawQuery(selectQuery, new String[]{"%" + searchTerm + "%"});
+        // Observation rows are grouped by their hike here rather than in the index
+        try (Cursor cursor = db.rawQuery(SQL_SEARCH_OBSERVATION_ROWS, new String[]{match}, signal)) {
+            while (cursor.moveToNext()) {
+                matchOf(matches, cursor.getLong(0), terms.length)
+                        .addObservationRow(cursor.getBlob(1), cursor.getString(2), cursor.getString(3));
+            }
+        }
 
-        if (cursor.moveToFirst()) {
-            do {
-                Hike hike = new Hike(
-                        cursor.getInt(cursor.getColumnIndexOrThrow(KEY_HIKE_ID)),           // id
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_NAME)),            // name
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_LOCATION)),        // location
-                        cursor.getInt(cursor.getColumnIndexOrThrow(KEY_GROUP_SIZE)),         // maxGroupSize
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DURATION)),        // estimatedDuration
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DESCRIPTION)),     // description
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DIFFICULTY)),      // difficulty
-                        cursor.getDouble(cursor.getColumnIndexOrThrow(KEY_LENGTH)),          // length
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_PARKING)),         // parkingAvailable
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DATE))
-                );
-                hikeList.add(hike);
-            } while (cursor.moveToNext());
+        List<Long> ids = new ArrayList<>();
+        for (Map.Entry<Long, HikeSearchIndex.Match> entry : matches.entrySet()) {
+            if (entry.getValue().matchesAll()) {
+                ids.add(entry.getKey());
+            }
+        }
+        List<HikeSearchIndex.Hit> hits = new ArrayList<>(ids.size());
+        for (Hike hike : loadHikesById(db, ids, signal)) {
+            HikeSearchIndex.Match hikeMatch = matches.get((long) hike.getId());
+            hits.add(new HikeSearchIndex.Hit(hike, hikeMatch.getScore(), hikeMatch.getObservationText()));
         }
 
-        cursor.close();
-        db.close();
-        return hikeList;
+        // Stable sort: equal scores keep the date order from SQL
+        Collections.sort(hits, (a, b) -> Double.compare(b.score, a.score));
+        return hits;
+    }
+
+    private static HikeSearchIndex.Match matchOf(Map<Long, HikeSearchIndex.Match> matches, long hikeId, int terms) {
+        HikeSearchIndex.Match match = matches.get(hikeId);
+        if (match == null) {
+            match = new HikeSearchIndex.Match(terms);
+            matches.put(hikeId, match);
+        }
+        return match;
     }
 
     /**
-     * Advanced search hikes by multiple criteria
-     * @param name - search by name (can be partial)
-     * @param location - search by location (can be partial)
-     * @param date - search by exact date
-     * @param minLength - minimum length
-     * @param maxLength - maximum length
-     * @return List of hikes matching ALL provided criteria
+     * Hikes with the given ids, newest first. Ids are inlined (they are numbers)
+     * in chunks so a search matching most of the table stays within SQLite's
+     * statement size limit; the chunks are merged back into date order.
      */
+    private static List<Hike> loadHikesById(SQLiteDatabase db, List<Long> ids, CancellationSignal signal) {
+        List<List<Hike>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            StringBuilder idList = new StringBuilder();
+            for (Long id : ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()))) {
+                idList.append(idList.length() == 0 ? "" : ",").append(id);
+            }
+            chunks.add(HikeMapper.INSTANCE.mapAll(db.rawQuery("SELECT " + HikeMapper.INSTANCE.getSelectColumns() +
+                    " FROM " + TABLE_HIKES + " WHERE " + KEY_HIKE_ID + " IN (" + idList + ")" +
+                    " ORDER BY " + ORDER_BY_DATE_DESC, null, signal)));
+        }
+        if (chunks.size() == 1) {
+            return chunks.get(0);
+        }
+        List<Hike> hikes = new ArrayList<>(ids.size());
+        for (List<Hike> chunk : chunks) {
+            hikes.addAll(chunk);
+        }
+        // Same order as ORDER_BY_DATE_DESC: undated hikes (NULL epoch day) last
+        Map<Integer, Long> epochDays = new HashMap<>();
+        for (Hike hike : hikes) {
+            epochDays.put(hike.getId(), toEpochDay(hike.getDate()));
+        }
+        Collections.sort(hikes, (a, b) -> {
+            Long dayA = epochDays.get(a.getId());
+            Long dayB = epochDays.get(b.getId());
+            if (dayA == null && dayB != null) {
+                return 1;
+            } else if (dayA != null && dayB == null) {
+                return -1;
+            } else if (dayA != null && !dayA.equals(dayB)) {
+                return Long.compare(dayB, dayA);
+            }
+            return Integer.compare(b.getId(), a.getId());
+        });
+        return hikes;
+    }
 
-    public List<Hike> advancedSearchHikes(String name, String location, String date,
-                                          Double minLength, Double maxLength) {
-        List<Hike> hikeList = new ArrayList<>();
+    /**
+     * Typo-tolerant search over name and location ("snowdn" finds "Snowdon").
+     * Candidates come from the trigram index, so the cost follows the number of
+     * hikes sharing grams with the text rather than the table size; they are
+     * then ranked by edit distance, closest first.
+     * @param text - free text typed by the user
+     * @param limit - maximum number of hikes returned
+     */
+    public List<Hike> fuzzySearchHikes(String text, int limit) {
+        String[] terms = HikeSearchIndex.toTerms(text);
+        if (terms.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
         SQLiteDatabase db = this.getReadableDatabase();
+        Map<Long, Integer> candidates = HikeTrigramIndex.candidates(db, text, FUZZY_CANDIDATES);
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        StringBuilder selectQuery = new StringBuilder("SELECT * FROM " + TABLE_HIKES + " WHERE 1=1");
-        List<String> argsList = new ArrayList<>();
-
-        if (name != null && !name.isEmpty()) {
-            selectQuery.append(" AND " + KEY_NAME + " LIKE ?");
-            argsList.add("%" + name + "%");
-        }
-        if (location != null && !location.isEmpty()) {
-            selectQuery.append(" AND " + KEY_LOCATION + " LIKE ?");
-            argsList.add("%" + location + "%");
-        }
-        if (date != null && !date.isEmpty()) {
-            selectQuery.append(" AND " + KEY_DATE + " = ?");
-            argsList.add(date);
-        }
-        if (minLength != null) {
-            selectQuery.append(" AND " + KEY_LENGTH + " >= ?");
-            argsList.add(String.valueOf(minLength));
-        }
-        if (maxLength != null) {
-            selectQuery.append(" AND " + KEY_LENGTH + " <= ?");
-            argsList.add(String.valueOf(maxLength));
-        }
-
-        selectQuery.append(" ORDER BY " + KEY_DATE + " DESC");
-
-        Cursor cursor = db.rawQuery(selectQuery.toString(), argsList.toArray(new String[0]));
-
-        if (cursor.moveToFirst()) {
-            do {
-                Hike hike = new Hike(
-                        cursor.getInt(cursor.getColumnIndexOrThrow(KEY_HIKE_ID)),           // id
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_NAME)),            // name
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_LOCATION)),        // location
-                        cursor.getInt(cursor.getColumnIndexOrThrow(KEY_GROUP_SIZE)),         // maxGroupSize
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DURATION)),        // estimatedDuration
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DESCRIPTION)),     // description
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DIFFICULTY)),      // difficulty
-                        cursor.getDouble(cursor.getColumnIndexOrThrow(KEY_LENGTH)),          // length
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_PARKING)),         // parkingAvailable
-                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_DATE))
-                );
-                hikeList.add(hike);
-            } while (cursor.moveToNext());
-        }
-        cursor.close();
-        db.close();
-        return hikeList;
+        StringBuilder ids = new StringBuilder();
+        for (Long id : candidates.keySet()) {
+            ids.append(ids.length() == 0 ? "" : ",").append(id);
+        }
+        String selectQuery = "SELECT " + HikeMapper.INSTANCE.getSelectColumns() + " FROM " + TABLE_HIKES +
+                " WHERE " + KEY_HIKE_ID + " IN (" + ids + ") ORDER BY " + ORDER_BY_DATE_DESC;
+        List<Hike> hikes = HikeMapper.INSTANCE.mapAll(db.rawQuery(selectQuery, null));
+        // Date order from SQL is the last tie-break
+        return HikeTrigramIndex.rank(terms, hikes, candidates, limit);
     }
 }
@@ -0,0 +1,66 @@
+package com.example.m_hike.database;
+
+/**
+ * File layout shared by HikeExporter and the importer.
+ *
+ * JSON: {"version": 1, "hikes": [{hike fields..., "observations": [{...}]}]}
+ * CSV:  one header row, then a "hike" row followed by its "observation" rows.
+ */
+public final class HikeArchive {
+
+    public enum Format {
+        JSON("application/json", ".json"),
+        CSV("text/csv", ".csv");
+
+        private final String mimeType;
+        private final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    static final int VERSION = 1;
+
+    // JSON field names (CSV uses the column names below)
+    static final String FIELD_VERSION = "version";
+    static final String FIELD_HIKES = "hikes";
+    static final String FIELD_OBSERVATIONS = "observations";
+    static final String FIELD_ID = "id";
+    static final String FIELD_NAME = "name";
+    static final String FIELD_LOCATION = "location";
+    static final String FIELD_DATE = "date";
+    static final String FIELD_PARKING = "parkingAvailable";
+    static final String FIELD_LENGTH = "length";
+    static final String FIELD_DIFFICULTY = "difficulty";
+    static final String FIELD_DESCRIPTION = "description";
+    static final String FIELD_DURATION = "estimatedDuration";
+    static final String FIELD_GROUP_SIZE = "maxGroupSize";
+    static final String FIELD_OBSERVATION = "observation";
+    static final String FIELD_TIME = "time";
+    static final String FIELD_COMMENT = "comment";
+
+    // CSV: first column says which kind of record the row holds
+    static final String COLUMN_RECORD = "record";
+    static final String COLUMN_HIKE_ID = "hike_id";
+    static final String COLUMN_OBSERVATION_ID = "observation_id";
+    static final String RECORD_HIKE = "hike";
+    static final String RECORD_OBSERVATION = "observation";
+    static final String[] CSV_COLUMNS = {COLUMN_RECORD, COLUMN_HIKE_ID, COLUMN_OBSERVATION_ID,
+            DatabaseHelper.KEY_NAME, DatabaseHelper.KEY_LOCATION, DatabaseHelper.KEY_DATE,
+            DatabaseHelper.KEY_PARKING, DatabaseHelper.KEY_LENGTH, FIELD_DIFFICULTY,
+            DatabaseHelper.KEY_DESCRIPTION, DatabaseHelper.KEY_DURATION, DatabaseHelper.KEY_GROUP_SIZE,
+            DatabaseHelper.KEY_OBSERVATION, DatabaseHelper.KEY_TIME, DatabaseHelper.KEY_COMMENT};
+
+    private HikeArchive() {
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.m_hike.database;
+
+import android.util.LruCache;
+
+import com.example.m_hike.models.Hike;
+
+/**
+ * Bounded LRU cache of hikes by id, kept in step with DatabaseHelper writes.
+ * Hikes are copied on the way in and out because callers edit them in place.
+ */
+final class HikeCache {
+
+    static final int DEFAULT_MAX_SIZE = 64;
+
+    private final LruCache<Integer, Hike> cache;
+    // Bumped by every write; a read that raced a write must not cache its result
+    private int writeCount;
+
+    HikeCache(int maxSize) {
+        cache = new LruCache<>(maxSize);
+    }
+
+    // Cached copy, or null on a miss (the miss is counted)
+    Hike get(int id) {
+        Hike hike = cache.get(id);
+        return hike == null ? null : new Hike(hike);
+    }
+
+    // Snapshot to pass to putIfUnchanged once the database read completes
+    synchronized int beginRead() {
+        return writeCount;
+    }
+
+    // Cache a hike read from the database unless a write happened meanwhile
+    synchronized void putIfUnchanged(Hike hike, int readToken) {
+        if (hike != null && readToken == writeCount) {
+            cache.put(hike.getId(), new Hike(hike));
+        }
+    }
+
+    // Write-through after a successful update
+    synchronized void put(Hike hike) {
+        writeCount++;
+        cache.put(hike.getId(), new Hike(hike));
+    }
+
+    synchronized void remove(int id) {
+        writeCount++;
+        cache.remove(id);
+    }
+
+    synchronized void clear() {
+        writeCount++;
+        cache.evictAll();
+    }
+
+    void resize(int maxSize) {
+        cache.resize(maxSize);
+    }
+
+    int hitCount() {
+        return cache.hitCount();
+    }
+
+    int missCount() {
+        return cache.missCount();
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    int maxSize() {
+        return cache.maxSize();
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.m_hike.database;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.JsonWriter;
+
+import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.Observation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Streams every hike and its observations to a JSON or CSV file.
+ * Both tables are walked with forward-only cursors, hikes by id and
+ * observations by hike id, and merged on the fly; nothing is collected in
+ * memory, so the cost is the same for 10 or 100k rows.
+ * Runs on the calling (background) thread inside one read transaction, so
+ * the counts and both cursors see the same snapshot: a hike saved mid-export
+ * can't show up without its observations, or the other way round.
+ */
+public class HikeExporter {
+
+    // Receives progress on the exporting thread
+    public interface ProgressListener {
+        void onProgress(long rowsWritten, long totalRows);
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 500;
+
+    private final DatabaseHelper dbHelper;
+    private volatile boolean cancelled;
+
+    public HikeExporter(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    // Stop at the next row; export() then throws CancellationException
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Write the archive to out (flushed, not closed).
+     * @return number of hike + observation rows written
+     * @throws CancellationException if cancelled or the thread was interrupted
+     */
+    public long export(OutputStream out, HikeArchive.Format format, ProgressListener listener) throws IOException {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        DatabaseHelper.beginReadTransaction(db);
+        try {
+            return export(db, out, format, listener);
+        } finally {
+            // Nothing was changed; ending without setTransactionSuccessful just releases the snapshot
+            db.endTransaction();
+        }
+    }
+
+    private long export(SQLiteDatabase db, OutputStream out, HikeArchive.Format format,
+                        ProgressListener listener) throws IOException {
+        long total = DatabaseUtils.queryNumEntries(db, DatabaseHelper.TABLE_HIKES) +
+                DatabaseUtils.queryNumEntries(db, DatabaseHelper.TABLE_OBSERVATIONS);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RecordWriter records = format == HikeArchive.Format.JSON ? new JsonRecords(writer) : new CsvRecords(writer);
+        long written = 0;
+
+        try (Cursor hikes = db.query(DatabaseHelper.TABLE_HIKES, HikeMapper.INSTANCE.getProjection(),
+                null, null, null, null, DatabaseHelper.KEY_HIKE_ID);
+             // Served in order by the (hike_id, time) index
+             Cursor observations = db.query(DatabaseHelper.TABLE_OBSERVATIONS,
+                     ObservationMapper.INSTANCE.getProjection(), null, null, null, null,
+                     DatabaseHelper.KEY_HIKE_FK + ", " + DatabaseHelper.KEY_TIME + ", " + DatabaseHelper.KEY_OBS_ID)) {
+
+            int[] hikeColumns = HikeMapper.INSTANCE.resolveColumns(hikes);
+            int[] observationColumns = ObservationMapper.INSTANCE.resolveColumns(observations);
+            boolean hasObservation = observations.moveToFirst();
+
+            records.begin();
+            while (hikes.moveToNext()) {
+                checkCancelled();
+                Hike hike = HikeMapper.INSTANCE.mapRow(hikes, hikeColumns);
+                records.beginHike(hike);
+                written = reportRow(written, total, listener);
+
+                // This hike's observations are next in the observation cursor
+                while (hasObservation) {
+                    Observation observation = ObservationMapper.INSTANCE.mapRow(observations, observationColumns);
+                    if (observation.getHikeId() > hike.getId()) {
+                        break;
+                    }
+                    if (observation.getHikeId() == hike.getId()) {
+                        checkCancelled();
+                        records.observation(observation);
+                        written = reportRow(written, total, listener);
+                    }
+                    hasObservation = observations.moveToNext();
+                }
+                records.endHike();
+            }
+            records.finish();
+        }
+        writer.flush();
+        if (listener != null) {
+            listener.onProgress(written, total);
+        }
+        return written;
+    }
+
+    /**
+     * True when export() has to hold the write lock for its snapshot. Run it on
+     * the writer thread then, so other writes queue behind it instead of
+     * failing with a busy timeout on another connection.
+     */
+    public static boolean blocksWriters() {
+        return DatabaseHelper.readTransactionsBlockWriters();
+    }
+
+    private void checkCancelled() {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Export cancelled");
+        }
+    }
+
+    private static long reportRow(long written, long total, ProgressListener listener) {
+        written++;
+        if (listener != null && written % PROGRESS_INTERVAL == 0) {
+            listener.onProgress(written, total);
+        }
+        return written;
+    }
+
+    // One output format
+    private interface RecordWriter {
+        void begin() throws IOException;
+
+        void beginHike(Hike hike) throws IOException;
+
+        void observation(Observation observation) throws IOException;
+
+        void endHike() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class JsonRecords implements RecordWriter {
+        private final JsonWriter json;
+
+        JsonRecords(Writer writer) {
+            json = new JsonWriter(writer);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            json.beginObject();
+            json.name(HikeArchive.FIELD_VERSION).value(HikeArchive.VERSION);
+            json.name(HikeArchive.FIELD_HIKES).beginArray();
+        }
+
+        @Override
+        public void beginHike(Hike hike) throws IOException {
+            json.beginObject();
+            json.name(HikeArchive.FIELD_ID).value(hike.getId());
+            json.name(HikeArchive.FIELD_NAME).value(hike.getName());
+            json.name(HikeArchive.FIELD_LOCATION).value(hike.getLocation());
+            json.name(HikeArchive.FIELD_DATE).value(hike.getDate());
+            json.name(HikeArchive.FIELD_PARKING).value(hike.getParkingAvailable());
+            json.name(HikeArchive.FIELD_LENGTH).value(hike.getLength());
+            json.name(HikeArchive.FIELD_DIFFICULTY).value(hike.getDifficulty().getLabel());
+            json.name(HikeArchive.FIELD_DESCRIPTION).value(hike.getDescription());
+            json.name(HikeArchive.FIELD_DURATION).value(hike.getEstimatedDuration());
+            json.name(HikeArchive.FIELD_GROUP_SIZE).value(hike.getMaxGroupSize());
+            json.name(HikeArchive.FIELD_OBSERVATIONS).beginArray();
+        }
+
+        @Override
+        public void observation(Observation observation) throws IOException {
+            json.beginObject();
+            json.name(HikeArchive.FIELD_ID).value(observation.getId());
+            json.name(HikeArchive.FIELD_OBSERVATION).value(observation.getObservation());
+            json.name(HikeArchive.FIELD_TIME).value(observation.getTime());
+            json.name(HikeArchive.FIELD_COMMENT).value(observation.getComment());
+            json.endObject();
+        }
+
+        @Override
+        public void endHike() throws IOException {
+            json.endArray();
+            json.endObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.endArray();
+            json.endObject();
+            json.flush();
+        }
+    }
+
+    private static final class CsvRecords implements RecordWriter {
+        private final Writer writer;
+
+        CsvRecords(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writeRow((Object[]) HikeArchive.CSV_COLUMNS);
+        }
+
+        @Override
+        public void beginHike(Hike hike) throws IOException {
+            writeRow(HikeArchive.RECORD_HIKE, hike.getId(), null, hike.getName(), hike.getLocation(),
+                    hike.getDate(), hike.getParkingAvailable(), hike.getLength(), hike.getDifficulty().getLabel(),
+                    hike.getDescription(), hike.getEstimatedDuration(), hike.getMaxGroupSize(),
+                    null, null, null);
+        }
+
+        @Override
+        public void observation(Observation observation) throws IOException {
+            writeRow(HikeArchive.RECORD_OBSERVATION, observation.getHikeId(), observation.getId(),
+                    null, null, null, null, null, null, null, null, null,
+                    observation.getObservation(), observation.getTime(), observation.getComment());
+        }
+
+        @Override
+        public void endHike() {
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeRow(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,613 @@
+package com.example.m_hike.database;
+
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import com.example.m_hike.models.Difficulty;
+import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.HikeValidator;
+import com.example.m_hike.models.Observation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Streams a JSON or CSV archive (layout in HikeArchive) into the database.
+ * Records are parsed one at a time, checked with the form rules
+ * (HikeValidator) and inserted in transactions of batchSize records, so the
+ * file may be larger than the heap. Every commit also stores how far into the
+ * file it got; running the import again with the same source key after a crash
+ * or cancel skips the records that were already committed. The position is
+ * kept with a fingerprint of the file (size and a hash of its first bytes)
+ * and thrown away if the file under that key has changed since.
+ * Runs on the calling (background) thread.
+ */
+public class HikeImporter {
+
+    // Receives progress on the importing thread
+    public interface ProgressListener {
+        void onProgress(long recordsRead);
+    }
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int PROGRESS_INTERVAL = 500;
+    // Only the first errors are kept so a bad file can't fill the heap
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    // Last committed position of each unfinished import
+    private static final String TABLE_PROGRESS = "ImportProgress";
+    private static final String KEY_SOURCE = "source";
+    private static final String KEY_RECORDS_DONE = "records_done";
+    private static final String KEY_LAST_HIKE_ID = "last_hike_id";
+    private static final String KEY_FINGERPRINT = "fingerprint";
+    // Bytes at the start of the file that go into its fingerprint
+    private static final int FINGERPRINT_BYTES = 64 * 1024;
+
+    // JSON hike fields; the hike is inserted when its observations start, so these must come first
+    private static final Set<String> HIKE_FIELDS = new HashSet<>(Arrays.asList(
+            HikeArchive.FIELD_NAME, HikeArchive.FIELD_LOCATION, HikeArchive.FIELD_DATE,
+            HikeArchive.FIELD_PARKING, HikeArchive.FIELD_LENGTH, HikeArchive.FIELD_DIFFICULTY,
+            HikeArchive.FIELD_DESCRIPTION, HikeArchive.FIELD_DURATION, HikeArchive.FIELD_GROUP_SIZE));
+
+    private final DatabaseHelper dbHelper;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile boolean cancelled;
+
+    public HikeImporter(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    static void createProgressTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_PROGRESS + "(" +
+                KEY_SOURCE + " TEXT PRIMARY KEY," +
+                KEY_RECORDS_DONE + " INTEGER NOT NULL," +
+                KEY_LAST_HIKE_ID + " INTEGER NOT NULL," +
+                KEY_FINGERPRINT + " TEXT NOT NULL" +
+                ")");
+    }
+
+    static void dropProgressTable(SQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_PROGRESS);
+    }
+
+    // Records (hikes + observations) per transaction
+    public HikeImporter setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+        return this;
+    }
+
+    // Stop before the next record; the current batch is rolled back and can be resumed
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Import the archive read from in (not closed).
+     * @param sourceKey identifies the file (e.g. its Uri) so an interrupted import can resume
+     * @param sourceSize file size in bytes, or -1 if unknown; part of the file's fingerprint
+     * @throws CancellationException if cancelled or the thread was interrupted
+     */
+    public Result importFrom(InputStream in, HikeArchive.Format format, String sourceKey, long sourceSize,
+                             ProgressListener listener) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, FINGERPRINT_BYTES);
+        String fingerprint = fingerprint(buffered, sourceSize);
+        Reader reader = new BufferedReader(new InputStreamReader(buffered, StandardCharsets.UTF_8));
+        Session session = new Session(dbHelper.getWritableDatabase(), sourceKey, fingerprint, listener);
+        try {
+            if (format == HikeArchive.Format.JSON) {
+                readJson(new JsonReader(reader), session);
+            } else {
+                readCsv(new CsvReader(reader), session);
+            }
+            session.finish();
+        } finally {
+            session.close();
+        }
+        return session.result;
+    }
+
+    // Size plus a SHA-256 of the first bytes, read ahead and then pushed back into in
+    private static String fingerprint(BufferedInputStream in, long size) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every Android release provides SHA-256
+        }
+        byte[] buffer = new byte[8192];
+        in.mark(FINGERPRINT_BYTES);
+        int total = 0;
+        int read;
+        while (total < FINGERPRINT_BYTES
+                && (read = in.read(buffer, 0, Math.min(buffer.length, FINGERPRINT_BYTES - total))) != -1) {
+            digest.update(buffer, 0, read);
+            total += read;
+        }
+        in.reset();
+
+        StringBuilder fingerprint = new StringBuilder().append(size).append(':');
+        for (byte b : digest.digest()) {
+            fingerprint.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return fingerprint.toString();
+    }
+
+    // ---- JSON ----
+
+    private void readJson(JsonReader json, Session session) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            if (HikeArchive.FIELD_HIKES.equals(json.nextName())) {
+                json.beginArray();
+                while (json.hasNext()) {
+                    readJsonHike(json, session);
+                }
+                json.endArray();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    // Observations are streamed too, so they must come after the hike's own fields
+    private void readJsonHike(JsonReader json, Session session) throws IOException {
+        Hike hike = new Hike(null, null, null, null, Double.NaN, null, null, null, 0);
+        boolean written = false;
+        json.beginObject();
+        while (json.hasNext()) {
+            String field = json.nextName();
+            if (written && HIKE_FIELDS.contains(field)) {
+                // Too late: the hike went in when its observations started
+                json.skipValue();
+                session.invalid("Hike field \"" + field + "\" must come before \"" +
+                        HikeArchive.FIELD_OBSERVATIONS + "\"");
+                continue;
+            }
+            switch (field) {
+                case HikeArchive.FIELD_NAME:
+                    hike.setName(nextString(json));
+                    break;
+                case HikeArchive.FIELD_LOCATION:
+                    hike.setLocation(nextString(json));
+                    break;
+                case HikeArchive.FIELD_DATE:
+                    hike.setDate(nextString(json));
+                    break;
+                case HikeArchive.FIELD_PARKING:
+                    hike.setParkingAvailable(nextString(json));
+                    break;
+                case HikeArchive.FIELD_LENGTH:
+                    hike.setLength(parseDouble(nextString(json)));
+                    break;
+                case HikeArchive.FIELD_DIFFICULTY:
+                    hike.setDifficulty(Difficulty.fromLabel(nextString(json)));
+                    break;
+                case HikeArchive.FIELD_DESCRIPTION:
+                    hike.setDescription(nextString(json));
+                    break;
+                case HikeArchive.FIELD_DURATION:
+                    hike.setEstimatedDuration(nextString(json));
+                    break;
+                case HikeArchive.FIELD_GROUP_SIZE:
+                    hike.setMaxGroupSize(parseInt(nextString(json)));
+                    break;
+                case HikeArchive.FIELD_OBSERVATIONS:
+                    if (!written) {
+                        session.hike(hike);
+                        written = true;
+                    }
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        session.observation(readJsonObservation(json));
+                    }
+                    json.endArray();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        if (!written) {
+            session.hike(hike);
+        }
+    }
+
+    private Observation readJsonObservation(JsonReader json) throws IOException {
+        Observation observation = new Observation(0, null, null, null);
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case HikeArchive.FIELD_OBSERVATION:
+                    observation.setObservation(nextString(json));
+                    break;
+                case HikeArchive.FIELD_TIME:
+                    observation.setTime(nextString(json));
+                    break;
+                case HikeArchive.FIELD_COMMENT:
+                    observation.setComment(nextString(json));
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return observation;
+    }
+
+    // String, number or boolean as text; null for JSON null
+    private static String nextString(JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        if (json.peek() == JsonToken.BOOLEAN) {
+            return String.valueOf(json.nextBoolean());
+        }
+        return json.nextString();
+    }
+
+    // ---- CSV ----
+
+    private void readCsv(CsvReader csv, Session session) throws IOException {
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        List<String> row;
+        while ((row = csv.readRecord()) != null) {
+            String record = field(row, columns, HikeArchive.COLUMN_RECORD);
+            if (HikeArchive.RECORD_HIKE.equals(record)) {
+                session.hike(new Hike(
+                        field(row, columns, DatabaseHelper.KEY_NAME),
+                        field(row, columns, DatabaseHelper.KEY_LOCATION),
+                        field(row, columns, DatabaseHelper.KEY_DATE),
+                        field(row, columns, DatabaseHelper.KEY_PARKING),
+                        parseDouble(field(row, columns, DatabaseHelper.KEY_LENGTH)),
+                        Difficulty.fromLabel(field(row, columns, HikeArchive.FIELD_DIFFICULTY)),
+                        field(row, columns, DatabaseHelper.KEY_DESCRIPTION),
+                        field(row, columns, DatabaseHelper.KEY_DURATION),
+                        parseInt(field(row, columns, DatabaseHelper.KEY_GROUP_SIZE))));
+            } else if (HikeArchive.RECORD_OBSERVATION.equals(record)) {
+                // Belongs to the hike row above it
+                session.observation(new Observation(0,
+                        field(row, columns, DatabaseHelper.KEY_OBSERVATION),
+                        field(row, columns, DatabaseHelper.KEY_TIME),
+                        field(row, columns, DatabaseHelper.KEY_COMMENT)));
+            } else if (!row.isEmpty() && !(row.size() == 1 && row.get(0).isEmpty())) {
+                session.invalid("Unknown record type: " + record);
+            }
+        }
+    }
+
+    private static String field(List<String> row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < row.size() ? row.get(index) : null;
+    }
+
+    // Reads one RFC 4180 record at a time; quoted fields may contain commas and line breaks
+    private static final class CsvReader {
+        private final Reader reader;
+        private int pending = -2; // one character of look-ahead, -2 = none
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        // Fields of the next record, or null at end of file
+        List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            unread(next);
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            unread(next);
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return reader.read();
+        }
+
+        private void unread(int c) {
+            pending = c;
+        }
+    }
+
+    // ---- parsing helpers ----
+
+    // NaN fails validation with the form's "valid number" message
+    private static double parseDouble(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // Missing = 0 ("not specified"), unparseable = -1 (fails validation)
+    private static int parseInt(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // ---- writing ----
+
+    // One import run: the open transaction, compiled inserts and resume state
+    private final class Session {
+        private final SQLiteDatabase db;
+        private final String source;
+        private final String fingerprint;
+        private final ProgressListener listener;
+        private final BatchInserter inserter;
+        private final SQLiteStatement saveProgress;
+        final Result result = new Result();
+
+        // Records before resumeFrom were committed by an earlier run
+        private final long resumeFrom;
+        private final long resumeHikeId;
+        private long recordIndex;
+        // New id of the hike that following observations belong to, -1 if it was rejected
+        private long currentHikeId = -1;
+        private int inBatch;
+        private boolean inTransaction;
+
+        Session(SQLiteDatabase db, String source, String fingerprint, ProgressListener listener) {
+            this.db = db;
+            this.source = source;
+            this.fingerprint = fingerprint;
+            this.listener = listener;
+            long[] saved = loadProgress();
+            resumeFrom = saved[0];
+            resumeHikeId = saved[1];
+            result.resumedFrom = resumeFrom;
+            inserter = new BatchInserter(db);
+            saveProgress = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_PROGRESS + " (" +
+                    KEY_SOURCE + ", " + KEY_RECORDS_DONE + ", " + KEY_LAST_HIKE_ID + ", " +
+                    KEY_FINGERPRINT + ") VALUES (?, ?, ?, ?)");
+            db.beginTransaction();
+            inTransaction = true;
+        }
+
+        // Position saved for this source; a different file under the same key starts over
+        private long[] loadProgress() {
+            try (Cursor cursor = db.query(TABLE_PROGRESS,
+                    new String[]{KEY_RECORDS_DONE, KEY_LAST_HIKE_ID, KEY_FINGERPRINT},
+                    KEY_SOURCE + "=?", new String[]{source}, null, null, null)) {
+                if (!cursor.moveToFirst()) {
+                    return new long[]{0, -1};
+                }
+                if (fingerprint.equals(cursor.getString(2))) {
+                    return new long[]{cursor.getLong(0), cursor.getLong(1)};
+                }
+            }
+            db.delete(TABLE_PROGRESS, KEY_SOURCE + "=?", new String[]{source});
+            return new long[]{0, -1};
+        }
+
+        void hike(Hike hike) {
+            if (skip()) {
+                return;
+            }
+            String error = HikeValidator.validate(hike);
+            currentHikeId = -1;
+            if (error != null) {
+                result.addError(recordIndex, error);
+            } else {
+                try {
+                    // Imported with its index entries or reported, never both
+                    currentHikeId = inserter.insertHike(hike);
+                    result.hikesImported++;
+                } catch (SQLException e) {
+                    result.addError(recordIndex, e.getMessage());
+                }
+            }
+            recordDone();
+        }
+
+        void observation(Observation observation) {
+            if (skip()) {
+                return;
+            }
+            String error = currentHikeId == -1 ? "Observation of a hike that was not imported"
+                    : HikeValidator.validate(observation);
+            if (error != null) {
+                result.addError(recordIndex, error);
+            } else {
+                observation.setHikeId((int) currentHikeId);
+                try {
+                    inserter.insertObservation(observation);
+                    result.observationsImported++;
+                } catch (SQLException e) {
+                    result.addError(recordIndex, e.getMessage());
+                }
+            }
+            recordDone();
+        }
+
+        // A record that is neither a hike nor an observation
+        void invalid(String error) {
+            if (skip()) {
+                return;
+            }
+            result.addError(recordIndex, error);
+            recordDone();
+        }
+
+        // True for records an earlier run already committed
+        private boolean skip() {
+            if (cancelled || Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Import cancelled");
+            }
+            if (recordIndex < resumeFrom) {
+                recordIndex++;
+                currentHikeId = resumeHikeId;
+                return true;
+            }
+            return false;
+        }
+
+        private void recordDone() {
+            recordIndex++;
+            if (++inBatch >= batchSize) {
+                commit();
+                db.beginTransaction();
+                inTransaction = true;
+            }
+            if (listener != null && recordIndex % PROGRESS_INTERVAL == 0) {
+                listener.onProgress(recordIndex);
+            }
+        }
+
+        // Commit the batch together with the position reached
+        private void commit() {
+            saveProgress.bindString(1, source);
+            saveProgress.bindLong(2, recordIndex);
+            saveProgress.bindLong(3, currentHikeId);
+            saveProgress.bindString(4, fingerprint);
+            saveProgress.executeInsert();
+            db.setTransactionSuccessful();
+            db.endTransaction();
+            inTransaction = false;
+            inBatch = 0;
+            dbHelper.invalidateSuggestions();
+            DatabaseChangeNotifier.notifyChanged(DatabaseHelper.TABLE_HIKES, DatabaseChangeNotifier.ALL_ROWS);
+            DatabaseChangeNotifier.notifyChanged(DatabaseHelper.TABLE_OBSERVATIONS, DatabaseChangeNotifier.ALL_ROWS);
+        }
+
+        // Whole file read: commit the tail and forget the resume position
+        void finish() {
+            db.delete(TABLE_PROGRESS, KEY_SOURCE + "=?", new String[]{source});
+            db.setTransactionSuccessful();
+            db.endTransaction();
+            inTransaction = false;
+            dbHelper.invalidateSuggestions();
+            DatabaseChangeNotifier.notifyChanged(DatabaseHelper.TABLE_HIKES, DatabaseChangeNotifier.ALL_ROWS);
+            DatabaseChangeNotifier.notifyChanged(DatabaseHelper.TABLE_OBSERVATIONS, DatabaseChangeNotifier.ALL_ROWS);
+            if (listener != null) {
+                listener.onProgress(recordIndex);
+            }
+        }
+
+        // Roll back an unfinished batch (error or cancel); committed batches stay
+        void close() {
+            if (inTransaction) {
+                db.endTransaction();
+                inTransaction = false;
+            }
+            inserter.close();
+            saveProgress.close();
+        }
+    }
+
+    // Outcome of one import run
+    public static class Result {
+        private long hikesImported;
+        private long observationsImported;
+        private long resumedFrom;
+        private long errorCount;
+        private final List<String> errors = new ArrayList<>();
+
+        void addError(long record, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Record " + (record + 1) + ": " + message);
+            }
+        }
+
+        public long getHikesImported() {
+            return hikesImported;
+        }
+
+        public long getObservationsImported() {
+            return observationsImported;
+        }
+
+        // Records skipped because an earlier, interrupted run had committed them
+        public long getResumedFrom() {
+            return resumedFrom;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        // The first rejected records with the reason (at most 100)
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+    }
+}
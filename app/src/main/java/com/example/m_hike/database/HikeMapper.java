@@ -0,0 +1,45 @@
+package com.example.m_hike.database;
+
+import android.database.Cursor;
+
+import com.example.m_hike.models.Difficulty;
+import com.example.m_hike.models.Hike;
+
+// Hikes table row -> Hike
+final class HikeMapper extends CursorMapper<Hike> {
+
+    static final HikeMapper INSTANCE = new HikeMapper();
+
+    // Positions in the projection below
+    private static final int ID = 0, NAME = 1, LOCATION = 2, GROUP_SIZE = 3, DURATION = 4,
+            DESCRIPTION = 5, DIFFICULTY = 6, LENGTH = 7, PARKING = 8, DATE = 9;
+
+    private HikeMapper() {
+        super(DatabaseHelper.KEY_HIKE_ID,
+                DatabaseHelper.KEY_NAME,
+                DatabaseHelper.KEY_LOCATION,
+                DatabaseHelper.KEY_GROUP_SIZE,
+                DatabaseHelper.KEY_DURATION,
+                DatabaseHelper.KEY_DESCRIPTION,
+                DatabaseHelper.KEY_DIFFICULTY,
+                DatabaseHelper.KEY_LENGTH,
+                DatabaseHelper.KEY_PARKING,
+                DatabaseHelper.KEY_DATE);
+    }
+
+    @Override
+    protected Hike mapRow(Cursor cursor, int[] columns) {
+        return new Hike(
+                cursor.getInt(columns[ID]),
+                cursor.getString(columns[NAME]),
+                cursor.getString(columns[LOCATION]),
+                cursor.getInt(columns[GROUP_SIZE]),
+                cursor.getString(columns[DURATION]),
+                cursor.getString(columns[DESCRIPTION]),
+                Difficulty.fromCode(cursor.getInt(columns[DIFFICULTY])),
+                cursor.getDouble(columns[LENGTH]),
+                cursor.getString(columns[PARKING]),
+                cursor.getString(columns[DATE])
+        );
+    }
+}
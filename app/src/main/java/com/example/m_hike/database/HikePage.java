@@ -0,0 +1,67 @@
+package com.example.m_hike.database;
+
+import com.example.m_hike.models.Hike;
+
+import java.util.List;
+
+/**
+ * One keyset page of a hike query, in the query's sort order.
+ * The first/last keys are used to load the neighbouring pages.
+ */
+public class HikePage {
+
+    // Position of a row in its query's sort: the sort column's value (null if the row has none), then id
+    public static class Key {
+        final Object value;
+        final int id;
+
+        /**
+         * Between the rows without a sort value and the rest. A walk from it starts at
+         * the first NULL row when descending and at the first value when ascending.
+         */
+        static final Key NULL_BOUNDARY = new Key(null, 0);
+
+        Key(Object value, int id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        /**
+         * Whether a walk from this key stops at the NULL boundary rather than the end
+         * of the order: values when descending, NULL rows when ascending.
+         */
+        boolean endsAtNullBoundary(boolean descending) {
+            return this != NULL_BOUNDARY && (value != null) == descending;
+        }
+    }
+
+    private final List<Hike> hikes;
+    private final Key firstKey;
+    private final Key lastKey;
+
+    HikePage(List<Hike> hikes, Key firstKey, Key lastKey) {
+        this.hikes = hikes;
+        this.firstKey = firstKey;
+        this.lastKey = lastKey;
+    }
+
+    public List<Hike> getHikes() {
+        return hikes;
+    }
+
+    public Key getFirstKey() {
+        return firstKey;
+    }
+
+    public Key getLastKey() {
+        return lastKey;
+    }
+
+    public boolean isEmpty() {
+        return hikes.isEmpty();
+    }
+
+    public int size() {
+        return hikes.size();
+    }
+}
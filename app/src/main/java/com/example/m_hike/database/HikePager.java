@@ -0,0 +1,187 @@
+package com.example.m_hike.database;
+
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.m_hike.models.Hike;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Loads the hike list in keyset pages as the RecyclerView scrolls.
+ * Only MAX_PAGES pages are kept; pages scrolled far out of view are dropped
+ * and reloaded from their neighbour's key if the user scrolls back.
+ * Hikes with and without a sort value are paged as two ranges: when one runs
+ * out, loading carries on from HikePage.Key.NULL_BOUNDARY into the other.
+ * All methods must be called on the main thread.
+ */
+public class HikePager {
+
+    public static final int PAGE_SIZE = 30;
+    private static final int MAX_PAGES = 4;
+    // Start loading the next page when this many rows remain
+    private static final int PREFETCH_DISTANCE = 10;
+
+    // Receives list changes in adapter positions
+    public interface Listener {
+        void onRefreshed(List<Hike> hikes);
+
+        void onAppended(List<Hike> hikes);
+
+        void onPrepended(List<Hike> hikes);
+
+        void onDroppedFromStart(int count);
+
+        void onDroppedFromEnd(int count);
+    }
+
+    private final LifecycleOwner owner;
+    private final DatabaseHelper dbHelper;
+    private final Listener listener;
+
+    private final ArrayDeque<HikePage> pages = new ArrayDeque<>();
+    private HikeSort sort = HikeSort.DATE_DESC;
+    // Order of the loaded pages; their keys only page correctly in it
+    private HikeSort pagesSort = HikeSort.DATE_DESC;
+    private boolean loadingAfter, loadingBefore;
+    private boolean reachedEnd, reachedStart = true;
+    // Bumped on refresh so results of older in-flight loads are ignored
+    private int generation;
+
+    public HikePager(LifecycleOwner owner, DatabaseHelper dbHelper, Listener listener) {
+        this.owner = owner;
+        this.dbHelper = dbHelper;
+        this.listener = listener;
+    }
+
+    public HikeSort getSort() {
+        return sort;
+    }
+
+    // Takes effect on the next refresh (keys of loaded pages belong to the old order)
+    public void setSort(HikeSort sort) {
+        this.sort = sort != null ? sort : HikeSort.DATE_DESC;
+    }
+
+    // Reload from the top of the list
+    public void refresh() {
+        int gen = ++generation;
+        HikeSort sort = this.sort;
+        loadingAfter = true;
+        loadingBefore = false;
+        DatabaseExecutor.read(owner, () -> dbHelper.getHikesPageAfter(sort, null, PAGE_SIZE), page -> {
+            if (gen != generation) {
+                return;
+            }
+            loadingAfter = false;
+            pages.clear();
+            pagesSort = sort;
+            reachedStart = true;
+            reachedEnd = page.size() < PAGE_SIZE;
+            if (!page.isEmpty()) {
+                pages.addLast(page);
+            }
+            listener.onRefreshed(page.getHikes());
+        });
+    }
+
+    // Call from the RecyclerView scroll listener with the visible adapter range
+    public void onScrolled(int firstVisible, int lastVisible, int itemCount) {
+        if (pages.isEmpty()) {
+            return;
+        }
+        if (!reachedEnd && lastVisible >= itemCount - PREFETCH_DISTANCE) {
+            loadAfter();
+        }
+        if (!reachedStart && firstVisible <= PREFETCH_DISTANCE) {
+            loadBefore();
+        }
+    }
+
+    private void loadAfter() {
+        if (loadingAfter) {
+            return;
+        }
+        loadingAfter = true;
+        loadAfter(pages.getLast().getLastKey(), generation);
+    }
+
+    private void loadAfter(HikePage.Key key, int gen) {
+        HikeSort pageSort = pagesSort;
+        DatabaseExecutor.read(owner, () -> dbHelper.getHikesPageAfter(pageSort, key, PAGE_SIZE), page -> {
+            if (gen != generation) {
+                return;
+            }
+            boolean exhausted = page.size() < PAGE_SIZE;
+            if (!page.isEmpty()) {
+                pages.addLast(page);
+                listener.onAppended(page.getHikes());
+                if (pages.size() > MAX_PAGES) {
+                    HikePage dropped = pages.removeFirst();
+                    reachedStart = false;
+                    listener.onDroppedFromStart(dropped.size());
+                }
+            }
+            if (exhausted && key.endsAtNullBoundary(pageSort.isDescending())) {
+                // Hikes without a sort value come next: page them from the boundary
+                loadAfter(HikePage.Key.NULL_BOUNDARY, gen);
+                return;
+            }
+            loadingAfter = false;
+            reachedEnd = exhausted;
+        });
+    }
+
+    private void loadBefore() {
+        if (loadingBefore) {
+            return;
+        }
+        loadingBefore = true;
+        loadBefore(pages.getFirst().getFirstKey(), generation);
+    }
+
+    private void loadBefore(HikePage.Key key, int gen) {
+        HikeSort pageSort = pagesSort;
+        DatabaseExecutor.read(owner, () -> dbHelper.getHikesPageBefore(pageSort, key, PAGE_SIZE), page -> {
+            if (gen != generation) {
+                return;
+            }
+            boolean exhausted = page.size() < PAGE_SIZE;
+            if (!page.isEmpty()) {
+                pages.addFirst(page);
+                listener.onPrepended(page.getHikes());
+                if (pages.size() > MAX_PAGES) {
+                    HikePage dropped = pages.removeLast();
+                    reachedEnd = false;
+                    listener.onDroppedFromEnd(dropped.size());
+                }
+            }
+            // Walking backwards reverses the order, and which side of the NULL rows comes first
+            if (exhausted && key.endsAtNullBoundary(!pageSort.isDescending())) {
+                loadBefore(HikePage.Key.NULL_BOUNDARY, gen);
+                return;
+            }
+            loadingBefore = false;
+            reachedStart = exhausted;
+        });
+    }
+
+    // Keep page sizes in step with the adapter after a row was deleted from it
+    public void onHikeRemoved(int hikeId) {
+        Iterator<HikePage> iterator = pages.iterator();
+        while (iterator.hasNext()) {
+            HikePage page = iterator.next();
+            List<Hike> hikes = page.getHikes();
+            for (int i = 0; i < hikes.size(); i++) {
+                if (hikes.get(i).getId() == hikeId) {
+                    hikes.remove(i);
+                    if (page.isEmpty() && pages.size() > 1) {
+                        iterator.remove();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
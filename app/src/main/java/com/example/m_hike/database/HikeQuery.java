@@ -0,0 +1,151 @@
+package com.example.m_hike.database;
+
+import com.example.m_hike.models.Difficulty;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filters, sort and page of a hike list query, run by
+ * {@link DatabaseHelper#queryHikes(HikeQuery)}. Every filter is optional
+ * (null / unset matches everything) and all set filters must match.
+ * Setters return this so a query can be built in one expression.
+ */
+public class HikeQuery {
+
+    String nameContains;
+    String locationContains;
+    // Inclusive epoch-day bounds; dateText is an exact match for a date that doesn't parse
+    Long fromEpochDay;
+    Long toEpochDay;
+    String dateText;
+    Double minLength;
+    Double maxLength;
+    final Set<Difficulty> difficulties = EnumSet.noneOf(Difficulty.class);
+    Boolean parkingAvailable;
+    String duration;
+    Integer minGroupSize;
+    Integer maxGroupSize;
+    Boolean hasObservations;
+
+    HikeSort sort = HikeSort.DATE_DESC;
+    // 0 = no limit
+    int limit;
+    // Keyset page: rows after / before a key taken from an earlier page of the same sort
+    HikePage.Key after;
+    HikePage.Key before;
+
+    // Case-insensitive substring of the name
+    public HikeQuery setNameContains(String text) {
+        this.nameContains = emptyToNull(text);
+        return this;
+    }
+
+    public HikeQuery setLocationContains(String text) {
+        this.locationContains = emptyToNull(text);
+        return this;
+    }
+
+    // Hikes on one dd/MM/yyyy date
+    public HikeQuery setDate(String date) {
+        date = emptyToNull(date);
+        Long epochDay = DatabaseHelper.toEpochDay(date);
+        fromEpochDay = epochDay;
+        toEpochDay = epochDay;
+        dateText = epochDay == null ? date : null;
+        return this;
+    }
+
+    /**
+     * Hikes between two dd/MM/yyyy dates, both inclusive.
+     * Either bound may be null; a bound that doesn't parse is ignored.
+     */
+    public HikeQuery setDateRange(String from, String to) {
+        fromEpochDay = DatabaseHelper.toEpochDay(from);
+        toEpochDay = DatabaseHelper.toEpochDay(to);
+        dateText = null;
+        return this;
+    }
+
+    public HikeQuery setLengthRange(Double min, Double max) {
+        this.minLength = min;
+        this.maxLength = max;
+        return this;
+    }
+
+    // Any of the given levels; none (or UNKNOWN alone) for any difficulty
+    public HikeQuery setDifficulties(Difficulty... levels) {
+        difficulties.clear();
+        for (Difficulty level : levels) {
+            if (level != null) {
+                difficulties.add(level);
+            }
+        }
+        return this;
+    }
+
+    public HikeQuery setParkingAvailable(Boolean parkingAvailable) {
+        this.parkingAvailable = parkingAvailable;
+        return this;
+    }
+
+    // Exact estimated-duration option, e.g. "2-4 hours"
+    public HikeQuery setDuration(String duration) {
+        this.duration = emptyToNull(duration);
+        return this;
+    }
+
+    // Bounds on the hike's maximum group size
+    public HikeQuery setGroupSizeRange(Integer min, Integer max) {
+        this.minGroupSize = min;
+        this.maxGroupSize = max;
+        return this;
+    }
+
+    // true: at least one observation, false: none, null: either
+    public HikeQuery setHasObservations(Boolean hasObservations) {
+        this.hasObservations = hasObservations;
+        return this;
+    }
+
+    public HikeQuery setSort(HikeSort sort) {
+        this.sort = sort != null ? sort : HikeSort.DATE_DESC;
+        return this;
+    }
+
+    public HikeQuery setLimit(int limit) {
+        this.limit = Math.max(limit, 0);
+        return this;
+    }
+
+    // Next page: rows following the last key of the previous page
+    public HikeQuery setAfter(HikePage.Key after) {
+        this.after = after;
+        this.before = null;
+        return this;
+    }
+
+    // Previous page: rows preceding the first key of the page below
+    public HikeQuery setBefore(HikePage.Key before) {
+        this.before = before;
+        this.after = null;
+        return this;
+    }
+
+    public HikeSort getSort() {
+        return sort;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Set<Difficulty> getDifficulties() {
+        return Collections.unmodifiableSet(difficulties);
+    }
+
+    private static String emptyToNull(String text) {
+        return text == null || text.trim().isEmpty() ? null : text.trim();
+    }
+}
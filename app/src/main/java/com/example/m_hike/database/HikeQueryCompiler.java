@@ -0,0 +1,179 @@
+package com.example.m_hike.database;
+
+import com.example.m_hike.models.Difficulty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a HikeQuery into one parameterised SELECT.
+ * Values only ever go into the bind arguments, so every query of the same
+ * shape (same filters set, sort and paging direction) has identical SQL and
+ * reuses the statement SQLite already prepared for it on that connection
+ * (see DatabaseConfig.setSqlCacheSize).
+ *
+ * Predicates are emitted cheapest and most selective first: equality and
+ * ranges on indexed columns, the keyset bound, plain column comparisons,
+ * then LIKE scans, then the correlated observation lookup.
+ */
+final class HikeQueryCompiler {
+
+    // Sort column value selected next to the hike columns for HikePage keys
+    static final String COL_SORT_KEY = "sort_key";
+
+    static final class Compiled {
+        final String sql;
+        final String[] args;
+        // Rows come back in reverse list order (before-key page) and must be flipped
+        final boolean reversed;
+
+        private Compiled(String sql, String[] args, boolean reversed) {
+            this.sql = sql;
+            this.args = args;
+            this.reversed = reversed;
+        }
+    }
+
+    private static final String SELECT = "SELECT " + HikeMapper.INSTANCE.getSelectColumns() + ", ";
+
+    private HikeQueryCompiler() {
+    }
+
+    static Compiled compile(HikeQuery query) {
+        HikeSort sort = query.sort;
+        boolean reversed = query.before != null;
+        List<String> where = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+
+        // 1. Indexed equality: idx_hikes_difficulty (difficulty_code, date_epoch_day, id)
+        if (!query.difficulties.isEmpty() && !(query.difficulties.size() == 1
+                && query.difficulties.contains(Difficulty.UNKNOWN))) {
+            StringBuilder in = new StringBuilder();
+            for (Difficulty level : query.difficulties) {
+                in.append(in.length() == 0 ? "?" : ", ?");
+                args.add(String.valueOf(level.getCode()));
+            }
+            where.add(query.difficulties.size() == 1
+                    ? DatabaseHelper.KEY_DIFFICULTY + " = ?"
+                    : DatabaseHelper.KEY_DIFFICULTY + " IN (" + in + ")");
+        }
+
+        // 2. Indexed date: idx_hikes_date_epoch (date_epoch_day, id)
+        if (query.fromEpochDay != null && query.fromEpochDay.equals(query.toEpochDay)) {
+            where.add(DatabaseHelper.KEY_DATE_EPOCH + " = ?");
+            args.add(String.valueOf(query.fromEpochDay));
+        } else {
+            if (query.fromEpochDay != null) {
+                where.add(DatabaseHelper.KEY_DATE_EPOCH + " >= ?");
+                args.add(String.valueOf(query.fromEpochDay));
+            }
+            if (query.toEpochDay != null) {
+                where.add(DatabaseHelper.KEY_DATE_EPOCH + " <= ?");
+                args.add(String.valueOf(query.toEpochDay));
+            }
+        }
+
+        // 3. Keyset bound on the sort index
+        HikePage.Key key = reversed ? query.before : query.after;
+        if (key != null) {
+            // A before-key page is an after-key page of the reversed order
+            where.add(keysetPredicate(sort, sort.isDescending() != reversed, key));
+            if (key.value != null) {
+                args.add(String.valueOf(key.value));
+                args.add(String.valueOf(key.value));
+            }
+            if (key != HikePage.Key.NULL_BOUNDARY) {
+                args.add(String.valueOf(key.id));
+            }
+        }
+
+        // 4. Plain column comparisons
+        if (query.dateText != null) {
+            where.add(DatabaseHelper.KEY_DATE + " = ?");
+            args.add(query.dateText);
+        }
+        if (query.minLength != null) {
+            where.add(DatabaseHelper.KEY_LENGTH + " >= ?");
+            args.add(String.valueOf(query.minLength));
+        }
+        if (query.maxLength != null) {
+            where.add(DatabaseHelper.KEY_LENGTH + " <= ?");
+            args.add(String.valueOf(query.maxLength));
+        }
+        if (query.minGroupSize != null) {
+            where.add(DatabaseHelper.KEY_GROUP_SIZE + " >= ?");
+            args.add(String.valueOf(query.minGroupSize));
+        }
+        if (query.maxGroupSize != null) {
+            where.add(DatabaseHelper.KEY_GROUP_SIZE + " <= ?");
+            args.add(String.valueOf(query.maxGroupSize));
+        }
+        if (query.parkingAvailable != null) {
+            where.add(DatabaseHelper.KEY_PARKING + " = ?");
+            args.add(query.parkingAvailable ? "Yes" : "No");
+        }
+        if (query.duration != null) {
+            where.add(DatabaseHelper.KEY_DURATION + " = ?");
+            args.add(query.duration);
+        }
+
+        // 5. Substring scans
+        if (query.nameContains != null) {
+            where.add(DatabaseHelper.KEY_NAME + " LIKE ? ESCAPE '\\'");
+            args.add(containsPattern(query.nameContains));
+        }
+        if (query.locationContains != null) {
+            where.add(DatabaseHelper.KEY_LOCATION + " LIKE ? ESCAPE '\\'");
+            args.add(containsPattern(query.locationContains));
+        }
+
+        // 6. One probe of idx_observations_hike_time per remaining row
+        if (query.hasObservations != null) {
+            where.add((query.hasObservations ? "" : "NOT ") + "EXISTS (SELECT 1 FROM " +
+                    DatabaseHelper.TABLE_OBSERVATIONS + " o WHERE o." + DatabaseHelper.KEY_HIKE_FK +
+                    " = " + DatabaseHelper.TABLE_HIKES + "." + DatabaseHelper.KEY_HIKE_ID + ")");
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT)
+                .append(sort.getColumn()).append(" AS ").append(COL_SORT_KEY)
+                .append(" FROM ").append(DatabaseHelper.TABLE_HIKES);
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        sql.append(" ORDER BY ").append(sort.orderBy(reversed));
+        if (query.limit > 0) {
+            sql.append(" LIMIT ?");
+            args.add(String.valueOf(query.limit));
+        }
+        return new Compiled(sql.toString(), args.toArray(new String[0]), reversed);
+    }
+
+    /**
+     * Rows strictly after a key in (sort column, id) order, on the key's side of the
+     * NULL rows only, so every branch is a single seek on the sort index.
+     * NULL sorts lowest: NULL rows follow every value when descending and precede
+     * them when ascending; HikePager crosses over with HikePage.Key.NULL_BOUNDARY.
+     * Binds value, value, id; just id for a null key; nothing for the boundary.
+     */
+    private static String keysetPredicate(HikeSort sort, boolean descending, HikePage.Key key) {
+        String column = sort.getColumn();
+        String id = DatabaseHelper.KEY_HIKE_ID;
+        if (key == HikePage.Key.NULL_BOUNDARY) {
+            return column + (descending ? " IS NULL" : " IS NOT NULL");
+        }
+        if (key.value == null) {
+            return column + " IS NULL AND " + id + (descending ? " < ?" : " > ?");
+        }
+        String expression = sort.getSortExpression();
+        // (expression, id) beyond the key as a range start on expression plus a tie-break on id
+        return descending
+                ? expression + " <= ? AND (" + expression + " < ? OR " + id + " < ?)"
+                : expression + " >= ? AND (" + expression + " > ? OR " + id + " > ?)";
+    }
+
+    // LIKE pattern matching the text anywhere, with its own wildcards taken literally
+    private static String containsPattern(String text) {
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.m_hike.database;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.m_hike.models.Hike;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * FTS4 full-text index over hike name, location and description (one row per
+ * hike, docid = hike id) and over observation/comment text (one row per
+ * observation, docid = observation id), kept in sync by triggers on Hikes and
+ * Observations. Every observation write touches only its own row; results are
+ * grouped by hike when searching (DatabaseHelper.searchIndex).
+ */
+final class HikeSearchIndex {
+
+    static final String TABLE = "HikesSearch";
+    static final String TABLE_OBSERVATIONS = "ObservationsSearch";
+
+    // FTS columns, in declaration order (matchinfo reports hits in this order)
+    static final String COL_NAME = "name";
+    static final String COL_LOCATION = "location";
+    static final String COL_DESCRIPTION = "description";
+    static final String COL_OBSERVATION = "observation";
+    static final String COL_COMMENT = "comment";
+
+    // Ranking weight per column: a hit in the name counts more than one in a comment
+    static final double[] HIKE_WEIGHTS = {4.0, 3.0, 1.5};
+    static final double[] OBSERVATION_WEIGHTS = {1.0, 1.0};
+
+    // Triggers of both the current layout and the version 5 one (one FTS row per hike)
+    private static final String[] TRIGGERS = {"trg_hikes_search_insert", "trg_hikes_search_update",
+            "trg_hikes_search_delete", "trg_obs_search_insert", "trg_obs_search_update", "trg_obs_search_delete"};
+
+    private HikeSearchIndex() {
+    }
+
+    // Create the FTS tables and the triggers that keep them in sync
+    static void create(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE + " USING fts4(" +
+                COL_NAME + ", " + COL_LOCATION + ", " + COL_DESCRIPTION + ", tokenize=unicode61)");
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE_OBSERVATIONS + " USING fts4(" +
+                COL_OBSERVATION + ", " + COL_COMMENT + ", tokenize=unicode61)");
+
+        String hikes = DatabaseHelper.TABLE_HIKES;
+        String obs = DatabaseHelper.TABLE_OBSERVATIONS;
+        String hikeId = DatabaseHelper.KEY_HIKE_ID;
+        String obsId = DatabaseHelper.KEY_OBS_ID;
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_hikes_search_insert AFTER INSERT ON " + hikes +
+                " BEGIN INSERT INTO " + TABLE + "(docid, " + COL_NAME + ", " + COL_LOCATION + ", " +
+                COL_DESCRIPTION + ") VALUES (new." + hikeId + ", new." + DatabaseHelper.KEY_NAME + ", new." +
+                DatabaseHelper.KEY_LOCATION + ", new." + DatabaseHelper.KEY_DESCRIPTION + "); END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_hikes_search_update AFTER UPDATE OF " +
+                DatabaseHelper.KEY_NAME + ", " + DatabaseHelper.KEY_LOCATION + ", " +
+                DatabaseHelper.KEY_DESCRIPTION + " ON " + hikes +
+                " BEGIN UPDATE " + TABLE + " SET " + COL_NAME + " = new." + DatabaseHelper.KEY_NAME + ", " +
+                COL_LOCATION + " = new." + DatabaseHelper.KEY_LOCATION + ", " +
+                COL_DESCRIPTION + " = new." + DatabaseHelper.KEY_DESCRIPTION +
+                " WHERE docid = new." + hikeId + "; END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_hikes_search_delete AFTER DELETE ON " + hikes +
+                " BEGIN DELETE FROM " + TABLE + " WHERE docid = old." + hikeId + "; END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_obs_search_insert AFTER INSERT ON " + obs +
+                " BEGIN INSERT INTO " + TABLE_OBSERVATIONS + "(docid, " + COL_OBSERVATION + ", " +
+                COL_COMMENT + ") VALUES (new." + obsId + ", new." + DatabaseHelper.KEY_OBSERVATION +
+                ", new." + DatabaseHelper.KEY_COMMENT + "); END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_obs_search_update AFTER UPDATE OF " +
+                DatabaseHelper.KEY_OBSERVATION + ", " + DatabaseHelper.KEY_COMMENT + " ON " + obs +
+                " BEGIN UPDATE " + TABLE_OBSERVATIONS + " SET " +
+                COL_OBSERVATION + " = new." + DatabaseHelper.KEY_OBSERVATION + ", " +
+                COL_COMMENT + " = new." + DatabaseHelper.KEY_COMMENT +
+                " WHERE docid = new." + obsId + "; END");
+
+        // Also runs for each row of an ON DELETE CASCADE
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_obs_search_delete AFTER DELETE ON " + obs +
+                " BEGIN DELETE FROM " + TABLE_OBSERVATIONS + " WHERE docid = old." + obsId + "; END");
+    }
+
+    // Drop the tables and triggers (used by the schema migration before create)
+    static void drop(SQLiteDatabase db) {
+        for (String trigger : TRIGGERS) {
+            db.execSQL("DROP TRIGGER IF EXISTS " + trigger);
+        }
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_OBSERVATIONS);
+    }
+
+    // Index every existing hike and observation (used by the schema migration)
+    static void rebuild(SQLiteDatabase db) {
+        db.execSQL("DELETE FROM " + TABLE);
+        db.execSQL("INSERT INTO " + TABLE + "(docid, " + COL_NAME + ", " + COL_LOCATION + ", " +
+                COL_DESCRIPTION + ") SELECT " + DatabaseHelper.KEY_HIKE_ID + ", " + DatabaseHelper.KEY_NAME + ", " +
+                DatabaseHelper.KEY_LOCATION + ", " + DatabaseHelper.KEY_DESCRIPTION +
+                " FROM " + DatabaseHelper.TABLE_HIKES);
+        db.execSQL("DELETE FROM " + TABLE_OBSERVATIONS);
+        db.execSQL("INSERT INTO " + TABLE_OBSERVATIONS + "(docid, " + COL_OBSERVATION + ", " + COL_COMMENT +
+                ") SELECT " + DatabaseHelper.KEY_OBS_ID + ", " + DatabaseHelper.KEY_OBSERVATION + ", " +
+                DatabaseHelper.KEY_COMMENT + " FROM " + DatabaseHelper.TABLE_OBSERVATIONS);
+    }
+
+    /**
+     * Turn search terms into an FTS MATCH expression for rows holding any of them.
+     * Every word becomes a prefix term ("lak" matches "Lake"), phrase i of
+     * matchinfo being terms[i]. A hike matches when each term is found in
+     * its own row or in one of its observations' rows, which is checked per
+     * hike from the matchinfo of both tables.
+     * @return the expression, or null if there are no terms
+     */
+    static String toMatchAnyQuery(String[] terms) {
+        if (terms.length == 0) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            if (query.length() > 0) {
+                query.append(" OR ");
+            }
+            query.append(term).append('*');
+        }
+        return query.toString();
+    }
+
+    /**
+     * The words of the text, folded the way the unicode61 tokenizer folds them
+     * (lower case, diacritics removed).
+     */
+    static String[] toTerms(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String trimmed = fold(text).replaceAll("[^\\p{L}\\p{Nd}]+", " ").trim();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split(" ");
+    }
+
+    private static String fold(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One search result, with its hike text and the text of the observations
+     * that matched folded, so a narrower query ("lake" after "lak") can be
+     * answered by {@link #matches} without SQL. Only terms extending one of the
+     * original terms can be decided that way (see HikeSearchSession).
+     */
+    static final class Hit {
+        final Hike hike;
+        final double score;
+        // " word word ..." so a prefix test is a search for " " + term
+        private final String words;
+
+        Hit(Hike hike, double score, String observations) {
+            this.hike = hike;
+            this.score = score;
+            StringBuilder text = new StringBuilder();
+            for (String column : new String[]{hike.getName(), hike.getLocation(),
+                    hike.getDescription(), observations}) {
+                if (column != null) {
+                    text.append(column).append(' ');
+                }
+            }
+            this.words = " " + String.join(" ", toTerms(text.toString()));
+        }
+
+        // Same result as MATCH with these prefix terms (all must match)
+        boolean matches(String[] terms) {
+            for (String term : terms) {
+                if (!words.contains(" " + term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // What one hike matched so far, across its own row and its observations' rows
+    static final class Match {
+        private final boolean[] found;
+        private double score;
+        // Text of the observations that matched, kept for Hit
+        private StringBuilder observations;
+
+        Match(int terms) {
+            found = new boolean[terms];
+        }
+
+        void addHikeRow(byte[] matchInfo) {
+            score += score(matchInfo, HIKE_WEIGHTS);
+            markPhrasesFound(matchInfo, found);
+        }
+
+        void addObservationRow(byte[] matchInfo, String observation, String comment) {
+            score += score(matchInfo, OBSERVATION_WEIGHTS);
+            markPhrasesFound(matchInfo, found);
+            if (observations == null) {
+                observations = new StringBuilder();
+            }
+            observations.append(observation != null ? observation : "").append(' ')
+                    .append(comment != null ? comment : "").append(' ');
+        }
+
+        // Every term was found in the hike or one of its observations
+        boolean matchesAll() {
+            for (boolean termFound : found) {
+                if (!termFound) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double getScore() {
+            return score;
+        }
+
+        String getObservationText() {
+            return observations != null ? observations.toString() : null;
+        }
+    }
+
+    /**
+     * Relevance score from matchinfo(..., 'pcx'): for every phrase and column,
+     * hits in this row relative to hits across all rows, weighted per column.
+     * Scores of a hike's observation rows add up to the score of their
+     * concatenated text.
+     */
+    static double score(byte[] matchInfo, double[] weights) {
+        if (matchInfo == null || matchInfo.length < 8) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phrases = buffer.getInt(0);
+        int columns = buffer.getInt(4);
+        double score = 0;
+        for (int p = 0; p < phrases; p++) {
+            for (int c = 0; c < columns; c++) {
+                int base = 8 + 12 * (p * columns + c);
+                int hitsThisRow = buffer.getInt(base);
+                int hitsAllRows = buffer.getInt(base + 4);
+                if (hitsThisRow > 0 && hitsAllRows > 0) {
+                    double weight = c < weights.length ? weights[c] : 1.0;
+                    score += weight * hitsThisRow / hitsAllRows;
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Mark the phrases of matchinfo(..., 'pcx') that have a hit in this row.
+     * @param found - one flag per phrase, set (never cleared) here
+     */
+    static void markPhrasesFound(byte[] matchInfo, boolean[] found) {
+        if (matchInfo == null || matchInfo.length < 8) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phrases = Math.min(buffer.getInt(0), found.length);
+        int columns = buffer.getInt(4);
+        for (int p = 0; p < phrases; p++) {
+            for (int c = 0; c < columns && !found[p]; c++) {
+                found[p] = buffer.getInt(8 + 12 * (p * columns + c)) > 0;
+            }
+        }
+    }
+}
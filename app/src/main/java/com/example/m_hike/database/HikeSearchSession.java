@@ -0,0 +1,239 @@
+package com.example.m_hike.database;
+
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.m_hike.models.Hike;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Search-as-you-type over the full-text index.
+ * Input is debounced, a query still running when the text changes is
+ * cancelled, and recent results are cached: when the new text only narrows
+ * a cached query ("lake" after "lak") the cached hits are filtered in memory
+ * instead of querying again. The cache is dropped whenever hikes or
+ * observations change. All methods must be called on the main thread.
+ */
+public class HikeSearchSession implements DefaultLifecycleObserver, DatabaseChangeNotifier.Listener {
+
+    public static final long DEBOUNCE_MILLIS = 250;
+    private static final int MAX_CACHED_QUERIES = 16;
+
+    // Receives results on the main thread
+    public interface Listener {
+        void onResults(String text, List<Hike> hikes);
+
+        // The text has no searchable words (e.g. the field was cleared)
+        void onCleared();
+    }
+
+    private final LifecycleOwner owner;
+    private final DatabaseHelper dbHelper;
+    private final Listener listener;
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    // Ranked hits by their folded terms joined with spaces
+    private final LruCache<String, List<HikeSearchIndex.Hit>> cache = new LruCache<>(MAX_CACHED_QUERIES);
+
+    private String pendingText;
+    private final Runnable debounced = () -> search(pendingText);
+
+    // Terms of the query last started, "" when cleared
+    private String currentKey = "";
+    private Future<?> inFlight;
+    private CancellationSignal inFlightSignal;
+    // Bumped per query so a stale result is never delivered
+    private int generation;
+    // Bumped when the cache is dropped so a query that raced a write isn't cached
+    private int cacheEpoch;
+
+    public HikeSearchSession(LifecycleOwner owner, DatabaseHelper dbHelper, Listener listener) {
+        this.owner = owner;
+        this.dbHelper = dbHelper;
+        this.listener = listener;
+        owner.getLifecycle().addObserver(this);
+        DatabaseChangeNotifier.addListener(this);
+    }
+
+    // Call for every text change; searches once typing pauses for DEBOUNCE_MILLIS
+    public void setQuery(String text) {
+        main.removeCallbacks(debounced);
+        if (HikeSearchIndex.toTerms(text).length == 0) {
+            search(text);
+            return;
+        }
+        pendingText = text;
+        main.postDelayed(debounced, DEBOUNCE_MILLIS);
+    }
+
+    // Search immediately (search button / keyboard action)
+    public void searchNow(String text) {
+        main.removeCallbacks(debounced);
+        currentKey = null;
+        search(text);
+    }
+
+    private void search(String text) {
+        String[] terms = HikeSearchIndex.toTerms(text);
+        String key = String.join(" ", terms);
+        if (key.equals(currentKey)) {
+            return;
+        }
+        currentKey = key;
+        cancelInFlight();
+        int gen = ++generation;
+        int epoch = cacheEpoch;
+
+        if (terms.length == 0) {
+            listener.onCleared();
+            return;
+        }
+
+        List<HikeSearchIndex.Hit> cached = cache.get(key);
+        if (cached != null) {
+            deliver(text, cached);
+            return;
+        }
+
+        List<HikeSearchIndex.Hit> narrowed = findNarrowable(terms);
+        CancellationSignal signal = narrowed == null ? new CancellationSignal() : null;
+        inFlightSignal = signal;
+        inFlight = DatabaseExecutor.read(owner,
+                () -> narrowed != null ? filter(narrowed, terms) : dbHelper.searchIndex(text, signal),
+                new DatabaseExecutor.Callback<List<HikeSearchIndex.Hit>>() {
+                    @Override
+                    public void onResult(List<HikeSearchIndex.Hit> hits) {
+                        if (gen != generation) {
+                            return;
+                        }
+                        inFlight = null;
+                        inFlightSignal = null;
+                        if (epoch == cacheEpoch) {
+                            cache.put(key, hits);
+                        }
+                        deliver(text, hits);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        if (gen != generation) {
+                            return; // cancelled by a newer query
+                        }
+                        inFlight = null;
+                        inFlightSignal = null;
+                        currentKey = null;
+                        DatabaseExecutor.Callback.super.onError(e);
+                    }
+                });
+    }
+
+    /**
+     * Smallest cached result that contains every hit of the new terms: each
+     * cached term must be a prefix of one of the new terms. Each new term must
+     * also extend a cached term, since a hit only keeps the text of the
+     * observations that matched the cached terms.
+     */
+    private List<HikeSearchIndex.Hit> findNarrowable(String[] terms) {
+        List<HikeSearchIndex.Hit> best = null;
+        for (Map.Entry<String, List<HikeSearchIndex.Hit>> entry : cache.snapshot().entrySet()) {
+            String[] cachedTerms = entry.getKey().split(" ");
+            if (covers(cachedTerms, terms) && extendsAny(terms, cachedTerms)
+                    && (best == null || entry.getValue().size() < best.size())) {
+                best = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    private static boolean covers(String[] cachedTerms, String[] terms) {
+        for (String cachedTerm : cachedTerms) {
+            boolean found = false;
+            for (String term : terms) {
+                if (term.startsWith(cachedTerm)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Every new term starts with one of the cached terms
+    private static boolean extendsAny(String[] terms, String[] cachedTerms) {
+        for (String term : terms) {
+            boolean found = false;
+            for (String cachedTerm : cachedTerms) {
+                if (term.startsWith(cachedTerm)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Keeps the cached ranking order
+    private static List<HikeSearchIndex.Hit> filter(List<HikeSearchIndex.Hit> hits, String[] terms) {
+        List<HikeSearchIndex.Hit> filtered = new ArrayList<>();
+        for (HikeSearchIndex.Hit hit : hits) {
+            if (hit.matches(terms)) {
+                filtered.add(hit);
+            }
+        }
+        return filtered;
+    }
+
+    private void deliver(String text, List<HikeSearchIndex.Hit> hits) {
+        List<Hike> hikes = new ArrayList<>(hits.size());
+        for (HikeSearchIndex.Hit hit : hits) {
+            // Copies: screens may edit the hikes they are given
+            hikes.add(new Hike(hit.hike));
+        }
+        listener.onResults(text, hikes);
+    }
+
+    private void cancelInFlight() {
+        if (inFlightSignal != null) {
+            inFlightSignal.cancel();
+            inFlightSignal = null;
+        }
+        // A running query is stopped by its signal; this only unqueues one that hasn't started
+        if (inFlight != null) {
+            inFlight.cancel(false);
+            inFlight = null;
+        }
+    }
+
+    @Override
+    public void onTableChanged(String table, long rowId, Object origin) {
+        cache.evictAll();
+        cacheEpoch++;
+        // The next search, even for the same text, must query again
+        currentKey = null;
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        main.removeCallbacks(debounced);
+        cancelInFlight();
+        generation++;
+        DatabaseChangeNotifier.removeListener(this);
+        owner.getLifecycle().removeObserver(this);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.m_hike.database;
+
+/**
+ * Orders the hike list can be shown in. The id is always the last sort
+ * column (same direction) so the order is total and keyset paging is exact.
+ * SQLite sorts NULL before every value: hikes missing the sort column come
+ * first in ascending orders and last in descending ones.
+ * Declared in the order of the Settings screen's sort spinner.
+ */
+public enum HikeSort {
+    DATE_DESC(DatabaseHelper.KEY_DATE_EPOCH, false, true),
+    DATE_ASC(DatabaseHelper.KEY_DATE_EPOCH, false, false),
+    NAME_ASC(DatabaseHelper.KEY_NAME, true, false),
+    NAME_DESC(DatabaseHelper.KEY_NAME, true, true),
+    LENGTH_ASC(DatabaseHelper.KEY_LENGTH, false, false),
+    LENGTH_DESC(DatabaseHelper.KEY_LENGTH, false, true);
+
+    private final String column;
+    private final boolean ignoreCase;
+    private final boolean descending;
+
+    HikeSort(String column, boolean ignoreCase, boolean descending) {
+        this.column = column;
+        this.ignoreCase = ignoreCase;
+        this.descending = descending;
+    }
+
+    // Option index saved as "sort_order" by the Settings screen; unknown indexes fall back to DATE_DESC
+    public static HikeSort fromIndex(int index) {
+        HikeSort[] sorts = values();
+        return index >= 0 && index < sorts.length ? sorts[index] : DATE_DESC;
+    }
+
+    // Sort column as stored (also the value kept in HikePage.Key)
+    String getColumn() {
+        return column;
+    }
+
+    // Sort column with its collation, for ORDER BY and keyset comparisons
+    String getSortExpression() {
+        return ignoreCase ? column + " COLLATE NOCASE" : column;
+    }
+
+    boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * ORDER BY clause for this sort.
+     * @param reversed - walk the order backwards (loading the page before a key)
+     */
+    String orderBy(boolean reversed) {
+        String direction = descending != reversed ? " DESC" : " ASC";
+        return getSortExpression() + direction + ", " + DatabaseHelper.KEY_HIKE_ID + direction;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.m_hike.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.m_hike.models.Difficulty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Single-row summary of all hikes and observations (counts, total length,
+ * hikes per difficulty), kept up to date by triggers on Hikes and Observations
+ * so the statistics screen reads one row instead of aggregating both tables.
+ * Cascade deletes fire the Observations triggers as well.
+ */
+final class HikeStatsTable {
+
+    static final String TABLE = "HikeStats";
+
+    static final String COL_HIKES = "hike_count";
+    static final String COL_OBSERVATIONS = "observation_count";
+    static final String COL_LENGTH = "total_length";
+    static final String COL_EASY = "easy_count";
+    static final String COL_MODERATE = "moderate_count";
+    static final String COL_HARD = "hard_count";
+    static final String COL_VERY_HARD = "very_hard_count";
+
+    // Counter column per difficulty code; UNKNOWN rows are counted in hike_count only
+    private static final String[] DIFFICULTY_COLUMNS = {COL_EASY, COL_MODERATE, COL_HARD, COL_VERY_HARD};
+    private static final Difficulty[] DIFFICULTY_VALUES = {
+            Difficulty.EASY, Difficulty.MODERATE, Difficulty.HARD, Difficulty.VERY_HARD};
+
+    // Every stored column, in the order getHikeStatistics reads them
+    static final String[] COLUMNS = {COL_HIKES, COL_OBSERVATIONS, COL_LENGTH,
+            COL_EASY, COL_MODERATE, COL_HARD, COL_VERY_HARD};
+
+    private static final String[] TRIGGERS = {"trg_hikes_stats_insert", "trg_hikes_stats_delete",
+            "trg_hikes_stats_update", "trg_obs_stats_insert", "trg_obs_stats_delete"};
+
+    private static final double LENGTH_TOLERANCE = 1e-6;
+
+    private HikeStatsTable() {
+    }
+
+    static void create(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE + "(" +
+                "id INTEGER PRIMARY KEY CHECK (id = 1)," +
+                COL_HIKES + " INTEGER NOT NULL DEFAULT 0," +
+                COL_OBSERVATIONS + " INTEGER NOT NULL DEFAULT 0," +
+                COL_LENGTH + " REAL NOT NULL DEFAULT 0," +
+                COL_EASY + " INTEGER NOT NULL DEFAULT 0," +
+                COL_MODERATE + " INTEGER NOT NULL DEFAULT 0," +
+                COL_HARD + " INTEGER NOT NULL DEFAULT 0," +
+                COL_VERY_HARD + " INTEGER NOT NULL DEFAULT 0" +
+                ")");
+        db.execSQL("INSERT OR IGNORE INTO " + TABLE + " (id) VALUES (1)");
+
+        String hikes = DatabaseHelper.TABLE_HIKES;
+        String obs = DatabaseHelper.TABLE_OBSERVATIONS;
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_hikes_stats_insert AFTER INSERT ON " + hikes +
+                " BEGIN UPDATE " + TABLE + " SET " + hikeCounters("+", "new") + " WHERE id = 1; END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_hikes_stats_delete AFTER DELETE ON " + hikes +
+                " BEGIN UPDATE " + TABLE + " SET " + hikeCounters("-", "old") + " WHERE id = 1; END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_hikes_stats_update AFTER UPDATE OF " +
+                DatabaseHelper.KEY_LENGTH + ", " + DatabaseHelper.KEY_DIFFICULTY + " ON " + hikes +
+                " BEGIN UPDATE " + TABLE + " SET " + updateCounters() + " WHERE id = 1; END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_obs_stats_insert AFTER INSERT ON " + obs +
+                " BEGIN UPDATE " + TABLE + " SET " + COL_OBSERVATIONS + " = " + COL_OBSERVATIONS +
+                " + 1 WHERE id = 1; END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_obs_stats_delete AFTER DELETE ON " + obs +
+                " BEGIN UPDATE " + TABLE + " SET " + COL_OBSERVATIONS + " = " + COL_OBSERVATIONS +
+                " - 1 WHERE id = 1; END");
+    }
+
+    // Remove the table and its triggers (before re-creating them for a changed Hikes schema)
+    static void drop(SQLiteDatabase db) {
+        for (String trigger : TRIGGERS) {
+            db.execSQL("DROP TRIGGER IF EXISTS " + trigger);
+        }
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+    }
+
+    // Recompute every counter from the live tables
+    static void rebuild(SQLiteDatabase db) {
+        StringBuilder sql = new StringBuilder("UPDATE " + TABLE + " SET ");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(COLUMNS[i]).append(" = ").append(liveValue(COLUMNS[i]));
+        }
+        db.execSQL(sql.append(" WHERE id = 1").toString());
+    }
+
+    /**
+     * Compare the stored counters with freshly computed ones.
+     * @return one line per column that differs, empty if consistent
+     */
+    static List<String> diff(SQLiteDatabase db) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(COLUMNS[i]).append(", ").append(liveValue(COLUMNS[i]));
+        }
+        sql.append(" FROM ").append(TABLE).append(" WHERE id = 1");
+
+        List<String> differences = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery(sql.toString(), null)) {
+            if (!cursor.moveToFirst()) {
+                differences.add(TABLE + ": summary row missing");
+                return differences;
+            }
+            for (int i = 0; i < COLUMNS.length; i++) {
+                double stored = cursor.getDouble(2 * i);
+                double actual = cursor.getDouble(2 * i + 1);
+                if (Math.abs(stored - actual) > LENGTH_TOLERANCE) {
+                    differences.add(String.format(Locale.US, "%s: stored %s, actual %s",
+                            COLUMNS[i], format(stored), format(actual)));
+                }
+            }
+        }
+        return differences;
+    }
+
+    // Aggregate over the live tables for one stored column
+    private static String liveValue(String column) {
+        String hikes = DatabaseHelper.TABLE_HIKES;
+        switch (column) {
+            case COL_HIKES:
+                return "(SELECT COUNT(*) FROM " + hikes + ")";
+            case COL_OBSERVATIONS:
+                return "(SELECT COUNT(*) FROM " + DatabaseHelper.TABLE_OBSERVATIONS + ")";
+            case COL_LENGTH:
+                return "(SELECT IFNULL(SUM(" + DatabaseHelper.KEY_LENGTH + "), 0) FROM " + hikes + ")";
+            default:
+                for (int i = 0; i < DIFFICULTY_COLUMNS.length; i++) {
+                    if (DIFFICULTY_COLUMNS[i].equals(column)) {
+                        return "(SELECT COUNT(*) FROM " + hikes + " WHERE " +
+                                isDifficulty(hikes, DIFFICULTY_VALUES[i]) + ")";
+                    }
+                }
+                throw new IllegalArgumentException(column);
+        }
+    }
+
+    // "hike_count = hike_count + 1, total_length = total_length + ..., easy_count = ..."
+    private static String hikeCounters(String sign, String row) {
+        StringBuilder set = new StringBuilder();
+        set.append(COL_HIKES).append(" = ").append(COL_HIKES).append(' ').append(sign).append(" 1, ");
+        set.append(COL_LENGTH).append(" = ").append(COL_LENGTH).append(' ').append(sign).append(' ')
+                .append(lengthOf(row));
+        for (int i = 0; i < DIFFICULTY_COLUMNS.length; i++) {
+            set.append(", ").append(DIFFICULTY_COLUMNS[i]).append(" = ").append(DIFFICULTY_COLUMNS[i])
+                    .append(' ').append(sign).append(' ').append(isDifficulty(row, DIFFICULTY_VALUES[i]));
+        }
+        return set.toString();
+    }
+
+    // Move the old row's length/difficulty out of the counters and the new row's in
+    private static String updateCounters() {
+        StringBuilder set = new StringBuilder();
+        set.append(COL_LENGTH).append(" = ").append(COL_LENGTH)
+                .append(" - ").append(lengthOf("old")).append(" + ").append(lengthOf("new"));
+        for (int i = 0; i < DIFFICULTY_COLUMNS.length; i++) {
+            set.append(", ").append(DIFFICULTY_COLUMNS[i]).append(" = ").append(DIFFICULTY_COLUMNS[i])
+                    .append(" - ").append(isDifficulty("old", DIFFICULTY_VALUES[i]))
+                    .append(" + ").append(isDifficulty("new", DIFFICULTY_VALUES[i]));
+        }
+        return set.toString();
+    }
+
+    private static String lengthOf(String row) {
+        return "IFNULL(" + row + "." + DatabaseHelper.KEY_LENGTH + ", 0)";
+    }
+
+    // 1 or 0 (never NULL)
+    private static String isDifficulty(String row, Difficulty value) {
+        return "(IFNULL(" + row + "." + DatabaseHelper.KEY_DIFFICULTY + ", 0) = " + value.getCode() + ")";
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.m_hike.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Autocomplete for hike names and locations, answered from memory.
+ * Built on first use from the Hikes table, then kept in step by the
+ * DatabaseHelper writes. Bulk changes the helper can't describe row by row
+ * (imports) drop the index; it is rebuilt on the next lookup.
+ */
+final class HikeSuggestions {
+
+    // Rebuild attempts when writes keep landing while the table is being read
+    private static final int MAX_BUILD_ATTEMPTS = 3;
+
+    private PrefixIndex names;
+    private PrefixIndex locations;
+    // Bumped by every change so a build that raced a write is thrown away
+    private int writeCount;
+    // Row writes between beginWrite and endWrite; a build overlapping one can't tell
+    // whether it saw the row, so it is retried
+    private int pendingWrites;
+
+    // Completions for a name prefix; builds the index first if needed (call off the main thread)
+    List<String> completeName(SQLiteDatabase db, String prefix, int limit) {
+        if (!ensureBuilt(db)) {
+            return Collections.emptyList();
+        }
+        synchronized (this) {
+            return names != null ? names.complete(prefix, limit) : Collections.emptyList();
+        }
+    }
+
+    List<String> completeLocation(SQLiteDatabase db, String prefix, int limit) {
+        if (!ensureBuilt(db)) {
+            return Collections.emptyList();
+        }
+        synchronized (this) {
+            return locations != null ? locations.complete(prefix, limit) : Collections.emptyList();
+        }
+    }
+
+    synchronized boolean isBuilt() {
+        return names != null;
+    }
+
+    // Call before writing a hike row; always balance with endWrite
+    synchronized void beginWrite() {
+        pendingWrites++;
+    }
+
+    /**
+     * Apply a finished row write: the old name/location leave the index and
+     * the new ones join it. Pass nulls for the side that doesn't exist
+     * (insert, delete, or a write that failed).
+     */
+    synchronized void endWrite(String oldName, String oldLocation, String newName, String newLocation) {
+        pendingWrites--;
+        writeCount++;
+        if (pendingWrites == 0) {
+            notifyAll();
+        }
+        if (names != null) {
+            names.remove(oldName);
+            locations.remove(oldLocation);
+            names.add(newName);
+            locations.add(newLocation);
+        }
+    }
+
+    synchronized void invalidate() {
+        writeCount++;
+        names = null;
+        locations = null;
+    }
+
+    // Everything deleted: an empty index is still a valid one
+    synchronized void clear() {
+        writeCount++;
+        if (names != null) {
+            names = new PrefixIndex();
+            locations = new PrefixIndex();
+        }
+    }
+
+    // The table is read without holding the lock so writers are never blocked on it
+    boolean ensureBuilt(SQLiteDatabase db) {
+        for (int attempt = 0; attempt < MAX_BUILD_ATTEMPTS; attempt++) {
+            int startCount;
+            synchronized (this) {
+                if (names != null) {
+                    return true;
+                }
+                // A row write takes a few milliseconds; wait for it rather than racing it
+                while (pendingWrites > 0) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+                startCount = writeCount;
+            }
+
+            List<String> allNames = new ArrayList<>();
+            List<String> allLocations = new ArrayList<>();
+            try (Cursor cursor = db.query(DatabaseHelper.TABLE_HIKES,
+                    new String[]{DatabaseHelper.KEY_NAME, DatabaseHelper.KEY_LOCATION},
+                    null, null, null, null, null)) {
+                while (cursor.moveToNext()) {
+                    allNames.add(cursor.getString(0));
+                    allLocations.add(cursor.getString(1));
+                }
+            }
+            PrefixIndex builtNames = new PrefixIndex();
+            builtNames.addAll(allNames);
+            PrefixIndex builtLocations = new PrefixIndex();
+            builtLocations.addAll(allLocations);
+
+            synchronized (this) {
+                if (names != null) {
+                    return true;
+                }
+                if (writeCount == startCount && pendingWrites == 0) {
+                    names = builtNames;
+                    locations = builtLocations;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.m_hike.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.m_hike.models.Hike;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over hike name and location for typo-tolerant search.
+ * Each word is padded ("  snowdon ") and cut into overlapping 3-character
+ * grams; a misspelling still shares most of them with the real word, so
+ * hikes sharing enough grams with the query are fuzzy-match candidates.
+ * Rows are written by DatabaseHelper and the importer (SQLite triggers can't
+ * split strings) and removed with their hike by the cascading foreign key.
+ */
+final class HikeTrigramIndex {
+
+    static final String TABLE = "HikeTrigrams";
+    static final String COL_GRAM = "gram";
+    static final String COL_HIKE_ID = "hike_id";
+    private static final String INDEX_HIKE = "idx_hike_trigrams_hike";
+
+    static final String SQL_INSERT = "INSERT OR IGNORE INTO " + TABLE + " (" +
+            COL_GRAM + ", " + COL_HIKE_ID + ") VALUES (?, ?)";
+
+    // Fraction of the query's grams a candidate must share
+    private static final double MIN_SHARED_FRACTION = 0.4;
+    // Keeps the IN list well inside SQLite's bound-parameter limit
+    private static final int MAX_QUERY_GRAMS = 64;
+
+    private HikeTrigramIndex() {
+    }
+
+    static void create(SQLiteDatabase db) {
+        // Clustered by gram: a lookup reads one contiguous run of hike ids per gram
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE + "(" +
+                COL_GRAM + " TEXT NOT NULL," +
+                COL_HIKE_ID + " INTEGER NOT NULL REFERENCES " + DatabaseHelper.TABLE_HIKES +
+                "(" + DatabaseHelper.KEY_HIKE_ID + ") ON DELETE CASCADE," +
+                "PRIMARY KEY (" + COL_GRAM + ", " + COL_HIKE_ID + ")" +
+                ") WITHOUT ROWID");
+        // Re-indexing one hike and the cascade on delete
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_HIKE + " ON " + TABLE + "(" + COL_HIKE_ID + ")");
+    }
+
+    // Index every existing hike (used by the schema migration)
+    static void rebuild(SQLiteDatabase db) {
+        db.execSQL("DELETE FROM " + TABLE);
+        SQLiteStatement insert = db.compileStatement(SQL_INSERT);
+        try (Cursor cursor = db.query(DatabaseHelper.TABLE_HIKES, new String[]{DatabaseHelper.KEY_HIKE_ID,
+                DatabaseHelper.KEY_NAME, DatabaseHelper.KEY_LOCATION}, null, null, null, null, null)) {
+            while (cursor.moveToNext()) {
+                index(insert, cursor.getLong(0), cursor.getString(1), cursor.getString(2));
+            }
+        } finally {
+            insert.close();
+        }
+    }
+
+    // Add the grams of one hike using a statement compiled from SQL_INSERT
+    static void index(SQLiteStatement insert, long hikeId, String name, String location) {
+        for (String gram : trigrams(joinFields(name, location))) {
+            insert.bindString(1, gram);
+            insert.bindLong(2, hikeId);
+            insert.executeInsert();
+        }
+    }
+
+    static void index(SQLiteDatabase db, long hikeId, String name, String location) {
+        SQLiteStatement insert = db.compileStatement(SQL_INSERT);
+        try {
+            index(insert, hikeId, name, location);
+        } finally {
+            insert.close();
+        }
+    }
+
+    // Replace the grams of a hike whose name or location changed
+    static void reindex(SQLiteDatabase db, long hikeId, String name, String location) {
+        db.delete(TABLE, COL_HIKE_ID + " = ?", new String[]{String.valueOf(hikeId)});
+        index(db, hikeId, name, location);
+    }
+
+    private static String joinFields(String name, String location) {
+        return (name != null ? name : "") + " " + (location != null ? location : "");
+    }
+
+    /**
+     * Hikes sharing at least MIN_SHARED_FRACTION of the text's grams,
+     * most shared first.
+     * @return hike id -> number of shared grams, in that order
+     */
+    static Map<Long, Integer> candidates(SQLiteDatabase db, String text, int limit) {
+        Map<Long, Integer> candidates = new LinkedHashMap<>();
+        Set<String> grams = trigrams(text);
+        if (grams.isEmpty()) {
+            return candidates;
+        }
+        int gramCount = Math.min(grams.size(), MAX_QUERY_GRAMS);
+        StringBuilder placeholders = new StringBuilder();
+        String[] args = new String[gramCount + 2];
+        int i = 0;
+        for (String gram : grams) {
+            if (i == gramCount) {
+                break;
+            }
+            placeholders.append(i == 0 ? "?" : ", ?");
+            args[i++] = gram;
+        }
+        args[i++] = String.valueOf(Math.max(1, (int) Math.ceil(gramCount * MIN_SHARED_FRACTION)));
+        args[i] = String.valueOf(limit);
+
+        try (Cursor cursor = db.rawQuery(candidatesQuery(placeholders.toString()), args)) {
+            while (cursor.moveToNext()) {
+                candidates.put(cursor.getLong(0), cursor.getInt(1));
+            }
+        }
+        return candidates;
+    }
+
+    // Binds the grams (one per placeholder), the minimum shared count, then the limit
+    static String candidatesQuery(String placeholders) {
+        return "SELECT " + COL_HIKE_ID + ", COUNT(*) AS shared FROM " + TABLE +
+                " WHERE " + COL_GRAM + " IN (" + placeholders + ")" +
+                " GROUP BY " + COL_HIKE_ID + " HAVING shared >= ?" +
+                " ORDER BY shared DESC LIMIT ?";
+    }
+
+    // Distinct grams of every word, folded like the full-text index
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : HikeSearchIndex.toTerms(text)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Fuzzy matches among the candidate hikes: those whose name or location is
+     * within roughly one typo per three typed characters, closest first, then
+     * most shared grams, then their order in hikes.
+     * @param sharedGrams - hike id -> grams shared with the query, as from candidates()
+     */
+    static List<Hike> rank(String[] terms, List<Hike> hikes, Map<Long, Integer> sharedGrams, int limit) {
+        int maxDistance = Math.max(1, String.join(" ", terms).length() / 3);
+        Map<Long, Integer> distances = new HashMap<>();
+        List<Hike> matches = new ArrayList<>();
+        for (Hike hike : hikes) {
+            int distance = distance(terms, Arrays.asList(hike.getName(), hike.getLocation()));
+            if (distance <= maxDistance) {
+                distances.put((long) hike.getId(), distance);
+                matches.add(hike);
+            }
+        }
+        // Stable sort keeps the incoming order for full ties
+        Collections.sort(matches, (a, b) -> {
+            int byDistance = Integer.compare(distances.get((long) a.getId()), distances.get((long) b.getId()));
+            return byDistance != 0 ? byDistance
+                    : Integer.compare(sharedGrams.get((long) b.getId()), sharedGrams.get((long) a.getId()));
+        });
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Smallest edit distance between the query and any run of the same
+     * number of consecutive words in one of the fields.
+     */
+    static int distance(String[] queryTerms, Collection<String> fields) {
+        String query = String.join(" ", queryTerms);
+        int best = Integer.MAX_VALUE;
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            String[] words = HikeSearchIndex.toTerms(field);
+            if (words.length == 0) {
+                continue;
+            }
+            int window = Math.min(queryTerms.length, words.length);
+            for (int start = 0; start + window <= words.length; start++) {
+                String candidate = String.join(" ", Arrays.copyOfRange(words, start, start + window));
+                best = Math.min(best, levenshtein(query, candidate, best));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Levenshtein distance, giving up once every path costs at least limit.
+     * @return the distance, or limit if it is not smaller
+     */
+    static int levenshtein(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) >= limit) {
+            return limit;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin >= limit) {
+                return limit;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], limit);
+    }
+}
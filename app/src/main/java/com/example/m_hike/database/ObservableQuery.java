@@ -0,0 +1,90 @@
+package com.example.m_hike.database;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * A query bound to a screen's lifecycle that only re-runs when a table (or row)
+ * it depends on has changed. Changes are collected while the screen is in the
+ * background and the query runs once when the screen is resumed; a screen
+ * applies its own writes to its views directly and runs them through
+ * {@link #ownWrite} so they don't mark the query stale (a reload would reset
+ * the list position and any search).
+ * Create and use on the main thread.
+ */
+public final class ObservableQuery<T> implements DatabaseChangeNotifier.Listener, DefaultLifecycleObserver {
+
+    private final LifecycleOwner owner;
+    private final Callable<T> query;
+    private final DatabaseExecutor.Callback<T> callback;
+    // table -> row id the query reads, or ALL_ROWS
+    private final Map<String, Long> dependencies = new HashMap<>();
+    private boolean stale = true;
+
+    public ObservableQuery(@NonNull LifecycleOwner owner, @NonNull Callable<T> query,
+                           @NonNull DatabaseExecutor.Callback<T> callback) {
+        this.owner = owner;
+        this.query = query;
+        this.callback = callback;
+    }
+
+    // Re-run after any write to the table
+    public ObservableQuery<T> dependsOn(String table) {
+        dependencies.put(table, DatabaseChangeNotifier.ALL_ROWS);
+        return this;
+    }
+
+    // Re-run only after writes to this row (or table-wide writes)
+    public ObservableQuery<T> dependsOnRow(String table, long rowId) {
+        dependencies.put(table, rowId);
+        return this;
+    }
+
+    // Start listening; the first run happens on the next resume
+    public ObservableQuery<T> observe() {
+        DatabaseChangeNotifier.addListener(this);
+        owner.getLifecycle().addObserver(this);
+        return this;
+    }
+
+    // Wrap a write this screen applies to its views itself; other screens still see its events
+    public <R> Callable<R> ownWrite(@NonNull Callable<R> write) {
+        return () -> DatabaseChangeNotifier.runAs(this, write);
+    }
+
+    // Run now regardless of whether anything changed
+    public void reload() {
+        stale = false;
+        DatabaseExecutor.read(owner, query, callback);
+    }
+
+    @Override
+    public void onTableChanged(String table, long rowId, Object origin) {
+        Long dependency = dependencies.get(table);
+        if (dependency == null || origin == this) {
+            return;
+        }
+        if (dependency == DatabaseChangeNotifier.ALL_ROWS || rowId == DatabaseChangeNotifier.ALL_ROWS
+                || dependency == rowId) {
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onResume(@NonNull LifecycleOwner owner) {
+        if (stale) {
+            reload();
+        }
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        DatabaseChangeNotifier.removeListener(this);
+        owner.getLifecycle().removeObserver(this);
+    }
+}
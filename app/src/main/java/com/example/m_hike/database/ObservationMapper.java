@@ -0,0 +1,33 @@
+package com.example.m_hike.database;
+
+import android.database.Cursor;
+
+import com.example.m_hike.models.Observation;
+
+// Observations table row -> Observation
+final class ObservationMapper extends CursorMapper<Observation> {
+
+    static final ObservationMapper INSTANCE = new ObservationMapper();
+
+    // Positions in the projection below
+    private static final int ID = 0, HIKE_ID = 1, OBSERVATION = 2, TIME = 3, COMMENT = 4;
+
+    private ObservationMapper() {
+        super(DatabaseHelper.KEY_OBS_ID,
+                DatabaseHelper.KEY_HIKE_FK,
+                DatabaseHelper.KEY_OBSERVATION,
+                DatabaseHelper.KEY_TIME,
+                DatabaseHelper.KEY_COMMENT);
+    }
+
+    @Override
+    protected Observation mapRow(Cursor cursor, int[] columns) {
+        return new Observation(
+                cursor.getInt(columns[ID]),
+                cursor.getInt(columns[HIKE_ID]),
+                cursor.getString(columns[OBSERVATION]),
+                cursor.getString(columns[TIME]),
+                cursor.getString(columns[COMMENT])
+        );
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.m_hike.database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Distinct strings with a use count, kept in one sorted array so a prefix is
+ * a binary-searched range. Completions are the most used strings in that
+ * range (ties alphabetical). Not thread-safe; HikeSuggestions locks around it.
+ */
+final class PrefixIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Parallel arrays sorted by key; only the first size entries are used
+    private String[] keys;      // folded for matching
+    private String[] values;    // as first written, returned to callers
+    private int[] counts;
+    private int size;
+
+    PrefixIndex() {
+        keys = new String[INITIAL_CAPACITY];
+        values = new String[INITIAL_CAPACITY];
+        counts = new int[INITIAL_CAPACITY];
+    }
+
+    static String fold(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Add many strings at once: one sort instead of an array shift per string.
+     * Used to build the index from the table.
+     */
+    void addAll(List<String> newValues) {
+        List<String[]> entries = new ArrayList<>(size + newValues.size());
+        for (int i = 0; i < size; i++) {
+            for (int n = 0; n < counts[i]; n++) {
+                entries.add(new String[]{keys[i], values[i]});
+            }
+        }
+        for (String value : newValues) {
+            if (!isBlank(value)) {
+                entries.add(new String[]{fold(value), value.trim()});
+            }
+        }
+        // Stable: equal keys keep the first written value
+        entries.sort((a, b) -> a[0].compareTo(b[0]));
+
+        String[] newKeys = new String[Math.max(entries.size(), INITIAL_CAPACITY)];
+        String[] newValuesArray = new String[newKeys.length];
+        int[] newCounts = new int[newKeys.length];
+        int newSize = 0;
+        for (String[] entry : entries) {
+            if (newSize > 0 && newKeys[newSize - 1].equals(entry[0])) {
+                newCounts[newSize - 1]++;
+            } else {
+                newKeys[newSize] = entry[0];
+                newValuesArray[newSize] = entry[1];
+                newCounts[newSize] = 1;
+                newSize++;
+            }
+        }
+        keys = newKeys;
+        values = newValuesArray;
+        counts = newCounts;
+        size = newSize;
+    }
+
+    void add(String value) {
+        if (isBlank(value)) {
+            return;
+        }
+        String key = fold(value);
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            counts[index]++;
+            return;
+        }
+        int insertAt = -index - 1;
+        if (size == keys.length) {
+            int capacity = size + (size >> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        System.arraycopy(counts, insertAt, counts, insertAt + 1, size - insertAt);
+        keys[insertAt] = key;
+        values[insertAt] = value.trim();
+        counts[insertAt] = 1;
+        size++;
+    }
+
+    void remove(String value) {
+        if (isBlank(value)) {
+            return;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, fold(value));
+        if (index < 0) {
+            return;
+        }
+        if (--counts[index] > 0) {
+            return;
+        }
+        int tail = size - index - 1;
+        System.arraycopy(keys, index + 1, keys, index, tail);
+        System.arraycopy(values, index + 1, values, index, tail);
+        System.arraycopy(counts, index + 1, counts, index, tail);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+    }
+
+    /**
+     * @return up to limit strings starting with prefix (case-insensitive),
+     * most used first
+     */
+    List<String> complete(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        if (prefix == null || limit <= 0) {
+            return result;
+        }
+        String key = fold(prefix);
+        if (key.isEmpty()) {
+            return result;
+        }
+        int from = lowerBound(key);
+        // Every key with this prefix sorts before prefix + U+FFFF
+        int to = lowerBound(key + Character.MAX_VALUE);
+
+        // Indexes of the best entries so far, best first (limit is small)
+        int[] best = new int[Math.min(limit, to - from)];
+        int found = 0;
+        for (int i = from; i < to; i++) {
+            int position = found;
+            while (position > 0 && counts[i] > counts[best[position - 1]]) {
+                position--;
+            }
+            if (position == best.length) {
+                continue;
+            }
+            int moved = Math.min(found, best.length - 1) - position;
+            System.arraycopy(best, position, best, position + 1, moved);
+            best[position] = i;
+            found = Math.min(found + 1, best.length);
+        }
+        for (int i = 0; i < found; i++) {
+            result.add(values[best[i]]);
+        }
+        return result;
+    }
+
+    // First index whose key is >= key
+    private int lowerBound(String key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
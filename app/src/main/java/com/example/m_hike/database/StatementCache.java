@@ -0,0 +1,76 @@
+package com.example.m_hike.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled statements for DatabaseHelper's fixed-shape writes, compiled once
+ * per connection and reused. A statement holds its bindings, so a caller
+ * checks it out for the duration of one execution and hands it back; a
+ * concurrent caller of the same SQL compiles its own. The lock only guards
+ * the map: no database call is made while holding it, so a thread waiting
+ * for the connection can never block another that holds it.
+ */
+final class StatementCache {
+
+    // Binds the arguments of one execution (ids go in with bindLong, no String conversion)
+    interface Binder {
+        void bind(SQLiteStatement statement);
+    }
+
+    private final Map<String, SQLiteStatement> idle = new HashMap<>();
+    // Bumped by clear(); statements checked out before it are closed on return
+    private int generation;
+
+    // UPDATE/DELETE; returns the number of rows changed
+    int executeUpdateDelete(SQLiteDatabase db, String sql, Binder binder) {
+        SQLiteStatement statement;
+        int checkedOutGeneration;
+        synchronized (this) {
+            statement = idle.remove(sql);
+            checkedOutGeneration = generation;
+        }
+        if (statement == null) {
+            statement = db.compileStatement(sql);
+        }
+        try {
+            statement.clearBindings();
+            if (binder != null) {
+                binder.bind(statement);
+            }
+            return statement.executeUpdateDelete();
+        } finally {
+            giveBack(sql, statement, checkedOutGeneration);
+        }
+    }
+
+    private void giveBack(String sql, SQLiteStatement statement, int checkedOutGeneration) {
+        // Don't keep the bound values alive while the statement sits idle
+        statement.clearBindings();
+        synchronized (this) {
+            if (checkedOutGeneration == generation && !idle.containsKey(sql)) {
+                idle.put(sql, statement);
+                return;
+            }
+        }
+        statement.close();
+    }
+
+    // Statements belong to the open connection; drop them before it is closed
+    void clear() {
+        List<SQLiteStatement> closing;
+        synchronized (this) {
+            generation++;
+            closing = new ArrayList<>(idle.values());
+            idle.clear();
+        }
+        for (SQLiteStatement statement : closing) {
+            statement.close();
+        }
+    }
+}
@@ -1,37 +1,69 @@
 package com.example.m_hike.fragments;
 
 import android.app.AlertDialog;
+import android.content.ContentResolver;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
 import android.os.Bundle;
+import android.provider.DocumentsContract;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
+import android.widget.ProgressBar;
 import android.widget.Spinner;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.example.m_hike.R;
 import com.example.m_hike.activities.ProfileActivity;
+import com.example.m_hike.database.DatabaseExecutor;
 import com.example.m_hike.database.DatabaseHelper;
+import com.example.m_hike.database.HikeArchive;
+import com.example.m_hike.database.HikeExporter;
+import com.example.m_hike.database.HikeImporter;
 import com.google.android.material.textfield.TextInputEditText;
 
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
 public class SettingsFragment extends Fragment {
 
     // UI Components
     private TextInputEditText etUserName;
     private Spinner spinnerSortOrder;
     private Button btnSaveName, btnSavePreferences, btnClearAllData;
+    private Button btnExportJson, btnExportCsv, btnImport, btnCancelExport;
+    private ProgressBar progressExport;
 
     // Data
     private SharedPreferences sharedPreferences;
     private DatabaseHelper dbHelper;
+    private HikeExporter runningExport; // null when no export is running
+    private HikeImporter runningImport; // null when no import is running
+
+    // System "save as" picker for the export file
+    private final ActivityResultLauncher<String> exportJsonLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(HikeArchive.Format.JSON.getMimeType()),
+            uri -> exportTo(uri, HikeArchive.Format.JSON));
+    private final ActivityResultLauncher<String> exportCsvLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(HikeArchive.Format.CSV.getMimeType()),
+            uri -> exportTo(uri, HikeArchive.Format.CSV));
+    private final ActivityResultLauncher<String[]> importLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::importFrom);
 
     // Sort options
     private final String[] sortOptions = {"Date (Newest First)", "Date (Oldest First)",
@@ -50,7 +82,7 @@ public class SettingsFragment extends Fragment {
         sharedPreferences = requireActivity().getSharedPreferences("MHikePrefs", Context.MODE_PRIVATE);
 
         // Initialize database
-        dbHelper = new DatabaseHelper(requireContext());
+        dbHelper = DatabaseHelper.getInstance(requireContext());
 
         // Initialize views
         initializeViews(view);
@@ -73,6 +105,11 @@ public class SettingsFragment extends Fragment {
         btnSaveName = view.findViewById(R.id.btnSaveName);
         btnSavePreferences = view.findViewById(R.id.btnSavePreferences);
         btnClearAllData = view.findViewById(R.id.btnClearAllData);
+        btnExportJson = view.findViewById(R.id.btnExportJson);
+        btnExportCsv = view.findViewById(R.id.btnExportCsv);
+        btnImport = view.findViewById(R.id.btnImport);
+        btnCancelExport = view.findViewById(R.id.btnCancelExport);
+        progressExport = view.findViewById(R.id.progressExport);
     }
 
     // Setup spinner with sort options
@@ -108,6 +145,23 @@ public class SettingsFragment extends Fragment {
 
         // Clear all data button
         btnClearAllData.setOnClickListener(v -> showClearDataConfirmation());
+
+        // Export buttons
+        btnExportJson.setOnClickListener(v ->
+                exportJsonLauncher.launch("mhike-export" + HikeArchive.Format.JSON.getExtension()));
+        btnExportCsv.setOnClickListener(v ->
+                exportCsvLauncher.launch("mhike-export" + HikeArchive.Format.CSV.getExtension()));
+        btnImport.setOnClickListener(v -> importLauncher.launch(new String[]{
+                HikeArchive.Format.JSON.getMimeType(), HikeArchive.Format.CSV.getMimeType(),
+                "text/comma-separated-values", "text/plain"}));
+        btnCancelExport.setOnClickListener(v -> {
+            if (runningExport != null) {
+                runningExport.cancel();
+            }
+            if (runningImport != null) {
+                runningImport.cancel();
+            }
+        });
     }
 
     // Save user name to SharedPreferences
@@ -157,27 +211,168 @@ public class SettingsFragment extends Fragment {
 
     // Renamed from clearAllData: relies on ON DELETE CASCADE
     private void deleteAllHikes() {
-        try {
+        DatabaseExecutor.write(getViewLifecycleOwner(), () -> {
             dbHelper.deleteAllHikes();
-            Toast.makeText(requireContext(),
-                    "All data cleared successfully",
-                    Toast.LENGTH_LONG).show();
-            if (getActivity() != null) {
-                ((ProfileActivity) getActivity()).refreshStatistics();
+            return null;
+        }, new DatabaseExecutor.Callback<Void>() {
+            @Override
+            public void onResult(Void result) {
+                Toast.makeText(requireContext(),
+                        "All data cleared successfully",
+                        Toast.LENGTH_LONG).show();
+                if (getActivity() != null) {
+                    ((ProfileActivity) getActivity()).refreshStatistics();
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Failed to clear all data", e);
+                Toast.makeText(requireContext(),
+                        "Error clearing data: " + e.getMessage(),
+                        Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    // Stream all hikes and observations to the chosen file in the background
+    private void exportTo(Uri uri, HikeArchive.Format format) {
+        if (uri == null || runningExport != null || runningImport != null || getView() == null) {
+            return;
+        }
+        ContentResolver resolver = requireContext().getContentResolver();
+        HikeExporter exporter = new HikeExporter(dbHelper);
+        runningExport = exporter;
+        setExportRunning(true);
+
+        Callable<Long> task = () -> {
+            try (OutputStream out = resolver.openOutputStream(uri)) {
+                if (out == null) {
+                    throw new IOException("Cannot open " + uri);
+                }
+                return exporter.export(out, format, (rows, total) ->
+                        progressExport.post(() -> showExportProgress(rows, total)));
+            }
+        };
+        DatabaseExecutor.Callback<Long> callback = new DatabaseExecutor.Callback<Long>() {
+            @Override
+            public void onResult(Long rows) {
+                setExportRunning(false);
+                Toast.makeText(requireContext(), "Exported " + rows + " records", Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                setExportRunning(false);
+                deleteQuietly(resolver, uri);
+                if (e instanceof CancellationException) {
+                    Toast.makeText(requireContext(), "Export cancelled", Toast.LENGTH_SHORT).show();
+                } else {
+                    Log.e(TAG, "Export failed", e);
+                    Toast.makeText(requireContext(), "Error exporting data: " + e.getMessage(),
+                            Toast.LENGTH_SHORT).show();
+                }
+            }
+        };
+        if (HikeExporter.blocksWriters()) {
+            DatabaseExecutor.write(getViewLifecycleOwner(), task, callback);
+        } else {
+            DatabaseExecutor.read(getViewLifecycleOwner(), task, callback);
+        }
+    }
+
+    // Import a JSON/CSV archive; a re-run of an interrupted import resumes where it stopped
+    private void importFrom(Uri uri) {
+        if (uri == null || runningExport != null || runningImport != null || getView() == null) {
+            return;
+        }
+        ContentResolver resolver = requireContext().getContentResolver();
+        String type = resolver.getType(uri);
+        HikeArchive.Format format = (type != null && type.contains("json")) || uri.toString().endsWith(".json")
+                ? HikeArchive.Format.JSON : HikeArchive.Format.CSV;
+        HikeImporter importer = new HikeImporter(dbHelper);
+        runningImport = importer;
+        setExportRunning(true);
+        // Total is unknown until the file has been read
+        progressExport.setIndeterminate(true);
+
+        DatabaseExecutor.write(getViewLifecycleOwner(), () -> {
+            try (AssetFileDescriptor file = resolver.openAssetFileDescriptor(uri, "r")) {
+                if (file == null) {
+                    throw new IOException("Cannot open " + uri);
+                }
+                // getLength() is UNKNOWN_LENGTH (-1) for streamed documents
+                try (InputStream in = file.createInputStream()) {
+                    return importer.importFrom(in, format, uri.toString(), file.getLength(), null);
+                }
+            }
+        }, new DatabaseExecutor.Callback<HikeImporter.Result>() {
+            @Override
+            public void onResult(HikeImporter.Result result) {
+                setExportRunning(false);
+                if (result.getErrorCount() > 0) {
+                    Log.w(TAG, "Import rejected " + result.getErrorCount() + " records: " + result.getErrors());
+                }
+                Toast.makeText(requireContext(), "Imported " + result.getHikesImported() + " hikes and " +
+                        result.getObservationsImported() + " observations" +
+                        (result.getErrorCount() > 0 ? " (" + result.getErrorCount() + " rejected)" : ""),
+                        Toast.LENGTH_LONG).show();
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to clear all data", e);
-            Toast.makeText(requireContext(),
-                    "Error clearing data: " + e.getMessage(),
-                    Toast.LENGTH_SHORT).show();
+
+            @Override
+            public void onError(Exception e) {
+                setExportRunning(false);
+                if (e instanceof CancellationException) {
+                    Toast.makeText(requireContext(), "Import paused; import the same file again to continue",
+                            Toast.LENGTH_LONG).show();
+                } else {
+                    Log.e(TAG, "Import failed", e);
+                    Toast.makeText(requireContext(), "Error importing data: " + e.getMessage(),
+                            Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
+    }
+
+    // Export and import share the progress bar and cancel button
+    private void setExportRunning(boolean running) {
+        if (!running) {
+            runningExport = null;
+            runningImport = null;
+        }
+        btnExportJson.setEnabled(!running);
+        btnExportCsv.setEnabled(!running);
+        btnImport.setEnabled(!running);
+        btnCancelExport.setVisibility(running ? View.VISIBLE : View.GONE);
+        progressExport.setVisibility(running ? View.VISIBLE : View.GONE);
+        progressExport.setIndeterminate(false);
+        progressExport.setProgress(0);
+    }
+
+    private void showExportProgress(long rows, long total) {
+        if (runningExport != null && total > 0) {
+            progressExport.setProgress((int) (rows * 100 / total));
+        }
+    }
+
+    // Remove a partially written export file
+    private static void deleteQuietly(ContentResolver resolver, Uri uri) {
+        try {
+            DocumentsContract.deleteDocument(resolver, uri);
+        } catch (FileNotFoundException | RuntimeException e) {
+            Log.w(TAG, "Could not delete partial export " + uri, e);
         }
     }
 
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        // A write task isn't interrupted on destroy; stop the export ourselves
+        if (runningExport != null) {
+            runningExport.cancel();
+        }
         if (dbHelper != null) {
-            dbHelper.close();
+            dbHelper.release();
         }
     }
 }
\ No newline at end of file
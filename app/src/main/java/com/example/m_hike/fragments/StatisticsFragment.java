@@ -15,15 +15,13 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.m_hike.R;
 import com.example.m_hike.adapters.UpcomingHikeAdapter;
+import com.example.m_hike.database.DatabaseChangeNotifier;
 import com.example.m_hike.database.DatabaseHelper;
+import com.example.m_hike.database.ObservableQuery;
 import com.example.m_hike.models.Hike;
+import com.example.m_hike.models.HikeStatistics;
 
-import android.util.Log;
-
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -39,6 +37,9 @@ public class StatisticsFragment extends Fragment {
     // Data
     private DatabaseHelper dbHelper;
     private UpcomingHikeAdapter upcomingAdapter;
+    private ObservableQuery<HikeStatistics> statisticsQuery;
+    // Day the statistics were computed for ("upcoming" is relative to it)
+    private volatile long statisticsDay;
 
     private static final String TAG = "StatisticsFragment";
 
@@ -49,7 +50,7 @@ public class StatisticsFragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_statistics, container, false);
 
         // Initialize database
-        dbHelper = new DatabaseHelper(requireContext());
+        dbHelper = DatabaseHelper.getInstance(requireContext());
 
         // Initialize views
         initializeViews(view);
@@ -57,12 +58,20 @@ public class StatisticsFragment extends Fragment {
         // Setup RecyclerView
         setupRecyclerView();
 
-        // Load statistics
-        loadStatistics();
-
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // Re-computed on resume only when hikes or observations changed
+        statisticsQuery = new ObservableQuery<>(getViewLifecycleOwner(),
+                () -> dbHelper.getHikeStatistics(statisticsDay), this::showStatistics)
+                .dependsOn(DatabaseChangeNotifier.HIKES)
+                .dependsOn(DatabaseChangeNotifier.OBSERVATIONS)
+                .observe();
+    }
+
     private void initializeViews(View view) {
         // Overall stats
         tvStatTotalHikes = view.findViewById(R.id.tvStatTotalHikes);
@@ -92,51 +101,22 @@ public class StatisticsFragment extends Fragment {
         recyclerUpcomingHikes.setAdapter(upcomingAdapter);
     }
 
-    private void loadStatistics() {
-        List<Hike> allHikes = dbHelper.getAllHikes();
-
+    private void showStatistics(HikeStatistics stats) {
         // Total hikes
-        int totalHikes = allHikes.size();
+        int totalHikes = stats.getTotalHikes();
         tvStatTotalHikes.setText(String.valueOf(totalHikes));
 
         // Total observations
-        int totalObs = 0;
-        for (Hike hike : allHikes) {
-            totalObs += dbHelper.getObservationsForHike(hike.getId()).size();
-        }
-        tvStatTotalObs.setText(String.valueOf(totalObs));
+        tvStatTotalObs.setText(String.valueOf(stats.getTotalObservations()));
 
         // Total distance
-        double totalDistance = 0;
-        for (Hike hike : allHikes) {
-            totalDistance += hike.getLength();
-        }
-        tvStatTotalDistance.setText(String.format(Locale.getDefault(), "%.1f km", totalDistance));
-
-        // Difficulty distribution (null-safe)
-        int easyCount = 0, moderateCount = 0, hardCount = 0, veryHardCount = 0;
-
-        for (Hike hike : allHikes) {
-            String diffRaw = hike.getDifficulty();
-            String difficulty = diffRaw == null ? "" : diffRaw.toLowerCase(Locale.getDefault());
-            switch (difficulty) {
-                case "easy":
-                    easyCount++;
-                    break;
-                case "moderate":
-                    moderateCount++;
-                    break;
-                case "hard":
-                    hardCount++;
-                    break;
-                case "very hard":
-                    veryHardCount++;
-                    break;
-                default:
-                    // ignore unknown/empty difficulty
-                    break;
-            }
-        }
+        tvStatTotalDistance.setText(String.format(Locale.getDefault(), "%.1f km", stats.getTotalDistance()));
+
+        // Difficulty distribution
+        int easyCount = stats.getEasyCount();
+        int moderateCount = stats.getModerateCount();
+        int hardCount = stats.getHardCount();
+        int veryHardCount = stats.getVeryHardCount();
 
         // Update difficulty counts
         tvStatEasy.setText(String.valueOf(easyCount));
@@ -157,30 +137,11 @@ public class StatisticsFragment extends Fragment {
             progressVeryHard.setProgress(0);
         }
 
-        // Load upcoming hikes
-        loadUpcomingHikes(allHikes);
+        // Show upcoming hikes
+        showUpcomingHikes(stats.getUpcomingHikes());
     }
 
-    private void loadUpcomingHikes(List<Hike> allHikes) {
-        List<Hike> upcomingHikes = new ArrayList<>();
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-        Date today = new Date();
-
-        for (Hike hike : allHikes) {
-            try {
-                String dateStr = hike.getDate();
-                if (dateStr == null || dateStr.trim().isEmpty()) {
-                    continue;
-                }
-                Date hikeDate = sdf.parse(dateStr);
-                if (hikeDate != null && hikeDate.after(today)) {
-                    upcomingHikes.add(hike);
-                }
-            } catch (Exception e) { // catch any parsing or null issues
-                Log.e(TAG, "Failed to parse hike date for hike id=" + hike.getId(), e);
-            }
-        }
-
+    private void showUpcomingHikes(List<Hike> upcomingHikes) {
         if (upcomingHikes.isEmpty()) {
             recyclerUpcomingHikes.setVisibility(View.GONE);
             tvNoUpcoming.setVisibility(View.VISIBLE);
@@ -194,15 +155,19 @@ public class StatisticsFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
-        // Reload statistics when fragment becomes visible
-        loadStatistics();
+        // Upcoming hikes also change when the day does
+        long today = DatabaseHelper.todayEpochDay();
+        if (today != statisticsDay) {
+            statisticsDay = today;
+            statisticsQuery.reload();
+        }
     }
 
     @Override
     public void onDestroyView() {
         super.onDestroyView();
         if (dbHelper != null) {
-            dbHelper.close();
+            dbHelper.release();
         }
     }
 }
\ No newline at end of file
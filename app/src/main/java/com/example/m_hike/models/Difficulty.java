@@ -0,0 +1,81 @@
+package com.example.m_hike.models;
+
+import java.util.Locale;
+
+/**
+ * Hike difficulty, stored in the Hikes table as its integer code.
+ * Codes are persisted: never renumber an existing level, only append new ones.
+ */
+public enum Difficulty {
+    // Anything that wasn't one of the spinner choices (old free-text rows, bad imports)
+    UNKNOWN(0, "Unknown"),
+    EASY(1, "Easy"),
+    MODERATE(2, "Moderate"),
+    HARD(3, "Hard"),
+    VERY_HARD(4, "Very Hard");
+
+    // values() clones the array on every call
+    private static final Difficulty[] BY_CODE = values();
+
+    // Spinner choices, in spinner order
+    private static final Difficulty[] SELECTABLE = {EASY, MODERATE, HARD, VERY_HARD};
+
+    private final int code;
+    private final String label;
+
+    Difficulty(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the level stored as {@code code}, UNKNOWN for codes this version doesn't know
+     */
+    public static Difficulty fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : UNKNOWN;
+    }
+
+    /**
+     * Parse a label such as "Very Hard" (case and surrounding spaces ignored).
+     * @return the matching level, UNKNOWN for null or unrecognised text
+     */
+    public static Difficulty fromLabel(String label) {
+        if (label == null) {
+            return UNKNOWN;
+        }
+        String normalized = label.trim().toLowerCase(Locale.ROOT);
+        for (Difficulty difficulty : SELECTABLE) {
+            if (difficulty.label.toLowerCase(Locale.ROOT).equals(normalized)) {
+                return difficulty;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    // Levels a user can pick (everything but UNKNOWN)
+    public static Difficulty[] selectable() {
+        return SELECTABLE.clone();
+    }
+
+    public static String[] selectableLabels() {
+        String[] labels = new String[SELECTABLE.length];
+        for (int i = 0; i < SELECTABLE.length; i++) {
+            labels[i] = SELECTABLE[i].label;
+        }
+        return labels;
+    }
+
+    // Spinners and TextViews show the label
+    @Override
+    public String toString() {
+        return label;
+    }
+}
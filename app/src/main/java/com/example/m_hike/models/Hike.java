@@ -8,7 +8,7 @@ public class Hike {
     private String date;
     private String parkingAvailable; // "Yes" or "No"
     private double length; // in kilometers
-    private String difficulty; // "Easy", "Moderate", "Hard"
+    private Difficulty difficulty;
     private String description;
 
     // Other relevant fields
@@ -17,7 +17,7 @@ public class Hike {
     private int maxGroupSize;
 
     // Constructors with id (for retrieval)
-    public Hike(int id, String name, String location, int maxGroupSize, String estimatedDuration, String description, String difficulty, double length, String parkingAvailable, String date) {
+    public Hike(int id, String name, String location, int maxGroupSize, String estimatedDuration, String description, Difficulty difficulty, double length, String parkingAvailable, String date) {
         this.id = id;
         this.name = name;
         this.location = location;
@@ -31,7 +31,7 @@ public class Hike {
     }
 
     // Constructors without id (for insertion)
-    public Hike(String name, String location, String date, String parkingAvailable, double length, String difficulty, String description, String estimatedDuration, int maxGroupSize) {
+    public Hike(String name, String location, String date, String parkingAvailable, double length, Difficulty difficulty, String description, String estimatedDuration, int maxGroupSize) {
         this.name = name;
         this.location = location;
         this.date = date;
@@ -43,6 +43,12 @@ public class Hike {
         this.maxGroupSize = maxGroupSize;
     }
 
+    // Copy constructor
+    public Hike(Hike other) {
+        this(other.id, other.name, other.location, other.maxGroupSize, other.estimatedDuration,
+                other.description, other.difficulty, other.length, other.parkingAvailable, other.date);
+    }
+
     // Getters and Setters
 
     public int getId() {
@@ -93,11 +99,11 @@ public class Hike {
         this.length = length;
     }
 
-    public String getDifficulty() {
+    public Difficulty getDifficulty() {
         return difficulty;
     }
 
-    public void setDifficulty(String difficulty) {
+    public void setDifficulty(Difficulty difficulty) {
         this.difficulty = difficulty;
     }
 
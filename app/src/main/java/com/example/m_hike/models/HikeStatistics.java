@@ -0,0 +1,63 @@
+package com.example.m_hike.models;
+
+import java.util.List;
+
+// Aggregated figures for the Profile > Statistics tab
+public class HikeStatistics {
+    private final int totalHikes;
+    private final int totalObservations;
+    private final double totalDistance; // in kilometers
+
+    // Difficulty distribution
+    private final int easyCount;
+    private final int moderateCount;
+    private final int hardCount;
+    private final int veryHardCount;
+
+    private final List<Hike> upcomingHikes;
+
+    public HikeStatistics(int totalHikes, int totalObservations, double totalDistance,
+                          int easyCount, int moderateCount, int hardCount, int veryHardCount,
+                          List<Hike> upcomingHikes) {
+        this.totalHikes = totalHikes;
+        this.totalObservations = totalObservations;
+        this.totalDistance = totalDistance;
+        this.easyCount = easyCount;
+        this.moderateCount = moderateCount;
+        this.hardCount = hardCount;
+        this.veryHardCount = veryHardCount;
+        this.upcomingHikes = upcomingHikes;
+    }
+
+    public int getTotalHikes() {
+        return totalHikes;
+    }
+
+    public int getTotalObservations() {
+        return totalObservations;
+    }
+
+    public double getTotalDistance() {
+        return totalDistance;
+    }
+
+    public int getEasyCount() {
+        return easyCount;
+    }
+
+    public int getModerateCount() {
+        return moderateCount;
+    }
+
+    public int getHardCount() {
+        return hardCount;
+    }
+
+    public int getVeryHardCount() {
+        return veryHardCount;
+    }
+
+    public List<Hike> getUpcomingHikes() {
+        return upcomingHikes;
+    }
+}
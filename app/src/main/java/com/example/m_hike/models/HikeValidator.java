@@ -0,0 +1,85 @@
+package com.example.m_hike.models;
+
+/**
+ * The field rules for hikes and observations, shared by the Add/Edit forms
+ * and data that doesn't come through them (e.g. imported files). The forms
+ * only check what is specific to typed text (empty or non-numeric input).
+ */
+public final class HikeValidator {
+
+    private HikeValidator() {
+    }
+
+    // Hike field a rule applies to, so a form can focus it
+    public enum Field { NAME, LOCATION, DATE, PARKING, LENGTH, GROUP_SIZE, DIFFICULTY }
+
+    // A broken rule: the field and the message the form shows
+    public static final class Problem {
+        public final Field field;
+        public final String message;
+
+        Problem(Field field, String message) {
+            this.field = field;
+            this.message = message;
+        }
+    }
+
+    /**
+     * @return the error the form would show, or null if the hike is valid
+     */
+    public static String validate(Hike hike) {
+        Problem problem = check(hike);
+        return problem != null ? problem.message : null;
+    }
+
+    /**
+     * Rules shared by the Add/Edit hike forms and the importer.
+     * @return the first broken rule, or null if the hike is valid
+     */
+    public static Problem check(Hike hike) {
+        if (isBlank(hike.getName())) {
+            return new Problem(Field.NAME, "Please enter hike name");
+        }
+        if (isBlank(hike.getLocation())) {
+            return new Problem(Field.LOCATION, "Please enter location");
+        }
+        if (isBlank(hike.getDate())) {
+            return new Problem(Field.DATE, "Please select date");
+        }
+        if (isBlank(hike.getParkingAvailable())) {
+            return new Problem(Field.PARKING, "Please select parking option");
+        }
+        if (Double.isNaN(hike.getLength())) {
+            return new Problem(Field.LENGTH, "Please enter a valid number for length");
+        }
+        if (hike.getLength() <= 0) {
+            return new Problem(Field.LENGTH, "Length must be a positive number");
+        }
+        // 0 means "not specified"
+        if (hike.getMaxGroupSize() < 0) {
+            return new Problem(Field.GROUP_SIZE, "Group size cannot be negative");
+        }
+        // UNKNOWN is kept: legacy free-text rows migrate to it and are exported with its label
+        if (hike.getDifficulty() == null) {
+            return new Problem(Field.DIFFICULTY, "Please select difficulty");
+        }
+        return null;
+    }
+
+    /**
+     * @return the error the form would show, or null if the observation is valid
+     */
+    public static String validate(Observation observation) {
+        if (isBlank(observation.getObservation())) {
+            return "Please enter an observation";
+        }
+        if (isBlank(observation.getTime())) {
+            return "Please select time of observation";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
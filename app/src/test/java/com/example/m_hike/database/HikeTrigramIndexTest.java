@@ -0,0 +1,131 @@
+package com.example.m_hike.database;
+
+import com.example.m_hike.models.Difficulty;
+import com.example.m_hike.models.Hike;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HikeTrigramIndexTest {
+
+    private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    @Test
+    public void levenshteinCountsEdits() {
+        assertEquals(0, HikeTrigramIndex.levenshtein("snowdon", "snowdon", NO_LIMIT));
+        assertEquals(1, HikeTrigramIndex.levenshtein("snowdon", "snowden", NO_LIMIT));
+        assertEquals(1, HikeTrigramIndex.levenshtein("snowdn", "snowdon", NO_LIMIT));
+        assertEquals(1, HikeTrigramIndex.levenshtein("snowdonn", "snowdon", NO_LIMIT));
+        assertEquals(2, HikeTrigramIndex.levenshtein("snwodon", "snowdon", NO_LIMIT));
+        assertEquals(3, HikeTrigramIndex.levenshtein("kitten", "sitting", NO_LIMIT));
+        assertEquals(4, HikeTrigramIndex.levenshtein("", "tarn", NO_LIMIT));
+    }
+
+    @Test
+    public void levenshteinIsSymmetric() {
+        String[] words = {"helvellyn", "helvelin", "scafell", "skafel", ""};
+        for (String a : words) {
+            for (String b : words) {
+                assertEquals(a + "/" + b, HikeTrigramIndex.levenshtein(a, b, NO_LIMIT),
+                        HikeTrigramIndex.levenshtein(b, a, NO_LIMIT));
+            }
+        }
+    }
+
+    @Test
+    public void levenshteinStopsAtTheLimit() {
+        // Capped when the real distance is not below the limit, exact otherwise
+        assertEquals(2, HikeTrigramIndex.levenshtein("abcdef", "uvwxyz", 2));
+        assertEquals(3, HikeTrigramIndex.levenshtein("a", "abcdefg", 3));
+        assertEquals(1, HikeTrigramIndex.levenshtein("snowdon", "snowden", 2));
+        assertEquals(1, HikeTrigramIndex.levenshtein("helvellyn", "snowdon", 1));
+    }
+
+    @Test
+    public void trigramsArePaddedPerWordAndFolded() {
+        Set<String> grams = HikeTrigramIndex.trigrams("Tarn Hows");
+
+        assertEquals(Arrays.asList("  t", " ta", "tar", "arn", "rn ", "  h", " ho", "how", "ows", "ws "),
+                new ArrayList<>(grams));
+        assertEquals(HikeTrigramIndex.trigrams("tarn hows"), HikeTrigramIndex.trigrams("T\u00c1RN, hows!"));
+        assertTrue(HikeTrigramIndex.trigrams(" ,. ").isEmpty());
+    }
+
+    @Test
+    public void distanceUsesTheClosestRunOfWords() {
+        String[] query = HikeSearchIndex.toTerms("ben nevs");
+
+        assertEquals(1, HikeTrigramIndex.distance(query, Arrays.asList("Up Ben Nevis today", null)));
+        assertEquals(0, HikeTrigramIndex.distance(HikeSearchIndex.toTerms("nevis"),
+                Arrays.asList("Ben Nevis", "Fort William")));
+        // A single-word field is compared whole against a longer query
+        assertEquals(HikeTrigramIndex.levenshtein("ben nevs", "nevis", NO_LIMIT),
+                HikeTrigramIndex.distance(query, Arrays.asList("Nevis")));
+    }
+
+    @Test
+    public void rankPutsClosestFirstThenMostSharedGrams() {
+        List<Hike> hikes = Arrays.asList(
+                hike(1, "Snowden Horseshoe", "Wales"),
+                hike(2, "Snowdon", "Llanberis"),
+                hike(3, "Snowdon Ranger", "Wales"),
+                hike(4, "Cadair Idris", "Dolgellau"));
+        Map<Long, Integer> shared = new HashMap<>();
+        shared.put(1L, 6);
+        shared.put(2L, 8);
+        shared.put(3L, 9);
+        shared.put(4L, 1);
+
+        List<Hike> ranked = HikeTrigramIndex.rank(HikeSearchIndex.toTerms("snowdon"), hikes, shared, 10);
+
+        // 3 and 2 both match exactly; 3 shares more grams. 4 is too far to match at all
+        assertEquals(Arrays.asList(3, 2, 1), ids(ranked));
+    }
+
+    @Test
+    public void rankKeepsInputOrderForFullTiesAndAppliesTheLimit() {
+        List<Hike> hikes = Arrays.asList(
+                hike(7, "Catbells", "Keswick"),
+                hike(5, "Catbells", "Keswick"),
+                hike(6, "Catbels", "Keswick"));
+        Map<Long, Integer> shared = new HashMap<>();
+        shared.put(5L, 4);
+        shared.put(6L, 4);
+        shared.put(7L, 4);
+
+        assertEquals(Arrays.asList(7, 5), ids(HikeTrigramIndex.rank(
+                HikeSearchIndex.toTerms("catbells"), hikes, shared, 2)));
+    }
+
+    @Test
+    public void rankAllowsAboutOneTypoPerThreeCharacters() {
+        List<Hike> hikes = Arrays.asList(hike(1, "Tryfan", "Ogwen"));
+        Map<Long, Integer> shared = new HashMap<>();
+        shared.put(1L, 3);
+
+        // "tryfn": 5 characters allow 1 edit; "trfn": 4 characters allow 1, needs 2
+        assertEquals(1, HikeTrigramIndex.rank(HikeSearchIndex.toTerms("tryfn"), hikes, shared, 10).size());
+        assertTrue(HikeTrigramIndex.rank(HikeSearchIndex.toTerms("trfn"), hikes, shared, 10).isEmpty());
+    }
+
+    private static Hike hike(int id, String name, String location) {
+        return new Hike(id, name, location, 4, "2-4 hours", null, Difficulty.MODERATE, 5, "Yes", "01/06/2024");
+    }
+
+    private static List<Integer> ids(List<Hike> hikes) {
+        List<Integer> ids = new ArrayList<>();
+        for (Hike hike : hikes) {
+            ids.add(hike.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.m_hike.database;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrefixIndexTest {
+
+    private static PrefixIndex indexOf(String... values) {
+        PrefixIndex index = new PrefixIndex();
+        for (String value : values) {
+            index.add(value);
+        }
+        return index;
+    }
+
+    @Test
+    public void matchesPrefixIgnoringCaseAndKeepsFirstSpelling() {
+        PrefixIndex index = indexOf("Snowdon", "snowdon", "Scafell Pike", "Ben Nevis");
+
+        assertEquals(Collections.singletonList("Snowdon"), index.complete("SNOW", 5));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void mostUsedFirstThenAlphabetical() {
+        PrefixIndex index = indexOf("Bray", "Brecon", "Bristol", "Brecon", "Bristol", "Brecon");
+
+        assertEquals(Arrays.asList("Brecon", "Bristol", "Bray"), index.complete("br", 5));
+        index.add("Bray");
+        index.add("Bray");
+        index.add("Bray");
+        assertEquals(Arrays.asList("Bray", "Brecon", "Bristol"), index.complete("br", 5));
+    }
+
+    @Test
+    public void tiesAreAlphabetical() {
+        PrefixIndex index = indexOf("Cwm Idwal", "Cadair Idris", "Crib Goch");
+
+        assertEquals(Arrays.asList("Cadair Idris", "Crib Goch", "Cwm Idwal"), index.complete("c", 5));
+    }
+
+    @Test
+    public void limitKeepsTheBestEntries() {
+        PrefixIndex index = indexOf("Aa", "Ab", "Ab", "Ac", "Ac", "Ac", "Ad");
+
+        assertEquals(Arrays.asList("Ac", "Ab"), index.complete("a", 2));
+        assertTrue(index.complete("a", 0).isEmpty());
+    }
+
+    @Test
+    public void onlyKeysWithThePrefixMatch() {
+        PrefixIndex index = indexOf("Lake", "Lakeside", "Lak", "Lamb", "Ladder");
+
+        assertEquals(Arrays.asList("Lake", "Lakeside"), index.complete("lake", 5));
+        assertTrue(index.complete("lakes z", 5).isEmpty());
+        assertTrue(index.complete("zzz", 5).isEmpty());
+    }
+
+    @Test
+    public void blankValuesAndPrefixesAreIgnored() {
+        PrefixIndex index = indexOf("  ", null, "", " Helvellyn ");
+
+        assertEquals(1, index.size());
+        assertEquals(Collections.singletonList("Helvellyn"), index.complete(" hel", 5));
+        assertTrue(index.complete("   ", 5).isEmpty());
+        assertTrue(index.complete(null, 5).isEmpty());
+    }
+
+    @Test
+    public void removeDropsTheEntryWithItsLastUse() {
+        PrefixIndex index = indexOf("Tryfan", "Tryfan", "Tarn");
+
+        index.remove("TRYFAN");
+        assertEquals(Arrays.asList("Tarn", "Tryfan"), index.complete("t", 5));
+        index.remove("Tryfan");
+        assertEquals(Collections.singletonList("Tarn"), index.complete("t", 5));
+        // Unknown and already removed values are no-ops
+        index.remove("Tryfan");
+        index.remove("Skiddaw");
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void addAllMatchesRepeatedAdds() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            values.add(String.format(Locale.ROOT, "Place %03d", i % 70));
+        }
+        values.add(" ");
+        PrefixIndex added = new PrefixIndex();
+        for (String value : values) {
+            added.add(value);
+        }
+        PrefixIndex bulk = indexOf("Place 005");
+        bulk.addAll(values);
+        added.add("Place 005");
+
+        assertEquals(70, bulk.size());
+        assertEquals(added.size(), bulk.size());
+        for (String prefix : new String[]{"p", "place 0", "place 06", "place 005"}) {
+            assertEquals(prefix, added.complete(prefix, 10), bulk.complete(prefix, 10));
+        }
+        assertEquals("Place 005", bulk.complete("pl", 1).get(0));
+    }
+
+    @Test
+    public void growsPastItsInitialCapacity() {
+        PrefixIndex index = new PrefixIndex();
+        for (int i = 99; i >= 0; i--) {
+            index.add("Hike " + i);
+        }
+
+        assertEquals(100, index.size());
+        assertEquals(Arrays.asList("Hike 5", "Hike 50", "Hike 51"), index.complete("hike 5", 3));
+    }
+}